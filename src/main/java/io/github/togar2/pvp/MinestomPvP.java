@@ -70,6 +70,9 @@ public class MinestomPvP {
 	 * Depending on the value of the parameters, it might also register:<br>
 	 * - a custom player implementation<br>
 	 * - a custom packet listener for {@link ClientKeepAlivePacket}<br>
+	 * <p>
+	 * Custom entries for the registries ({@link CombatEnchantments}, {@link CombatPotionEffects} and {@link CombatPotionTypes})
+	 * can be registered after this call, but only until the registries are frozen on their first lookup.
 	 *
 	 * @param player When set to true, the custom player implementation will be registered
 	 * @param keepAlive When set to true, the custom packet listener will be registered
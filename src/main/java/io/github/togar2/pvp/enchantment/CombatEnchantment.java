@@ -21,6 +21,12 @@ public class CombatEnchantment {
 	
 	private final Set<FeatureType<?>> dependencies;
 	
+	private int id = -1;
+	
+	// Whether this enchantment overrides the damage callbacks, so entities without such enchantments can skip them
+	private final boolean reactsToUserDamaged;
+	private final boolean reactsToTargetDamaged;
+	
 	public CombatEnchantment(DynamicRegistry.Key<Enchantment> enchantment, EquipmentSlot... slotTypes) {
 		this(enchantment, Set.of(), slotTypes);
 	}
@@ -30,6 +36,9 @@ public class CombatEnchantment {
 		this.enchantment = enchantment;
 		this.dependencies = dependencies;
 		this.slotTypes = slotTypes;
+		
+		this.reactsToUserDamaged = overrides("onUserDamaged", LivingEntity.class, LivingEntity.class);
+		this.reactsToTargetDamaged = overrides("onTargetDamaged", LivingEntity.class, Entity.class);
 	}
 	
 	public DynamicRegistry.Key<Enchantment> getEnchantment() {
@@ -40,6 +49,51 @@ public class CombatEnchantment {
 		return dependencies;
 	}
 	
+	/**
+	 * @return the registry id of the enchantment, or -1 if the registry of combat enchantments is not frozen yet
+	 */
+	public int getId() {
+		return id;
+	}
+	
+	void setId(int id) {
+		this.id = id;
+	}
+	
+	/**
+	 * @param slot the equipment slot
+	 * @return true if this enchantment has an effect when the item is in the given slot
+	 */
+	public boolean appliesTo(EquipmentSlot slot) {
+		for (EquipmentSlot slotType : slotTypes) {
+			if (slotType == slot) return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * @return true if this enchantment does something in {@link #onUserDamaged(LivingEntity, LivingEntity, int, EnchantmentFeature, FeatureConfiguration)}
+	 */
+	public boolean reactsToUserDamaged() {
+		return reactsToUserDamaged;
+	}
+	
+	/**
+	 * @return true if this enchantment does something in {@link #onTargetDamaged(LivingEntity, Entity, int, EnchantmentFeature, FeatureConfiguration)}
+	 */
+	public boolean reactsToTargetDamaged() {
+		return reactsToTargetDamaged;
+	}
+	
+	private boolean overrides(String method, Class<?> userType, Class<?> otherType) {
+		try {
+			return getClass().getMethod(method, userType, otherType, int.class,
+					EnchantmentFeature.class, FeatureConfiguration.class).getDeclaringClass() != CombatEnchantment.class;
+		} catch (NoSuchMethodException e) {
+			return true;
+		}
+	}
+	
 	public Map<EquipmentSlot, ItemStack> getEquipment(LivingEntity entity) {
 		Map<EquipmentSlot, ItemStack> map = new HashMap<>();
 		
@@ -5,29 +5,130 @@ import io.github.togar2.pvp.enchantment.enchantments.ImpalingEnchantment;
 import io.github.togar2.pvp.enchantment.enchantments.ProtectionEnchantment;
 import io.github.togar2.pvp.enchantment.enchantments.ThornsEnchantment;
 import io.github.togar2.pvp.feature.FeatureType;
+import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.EquipmentSlot;
 import net.minestom.server.item.enchant.Enchantment;
 import net.minestom.server.registry.DynamicRegistry;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Registry of all combat enchantments.
+ * <p>
+ * Enchantments can only be registered during startup. The registry is frozen into an immutable map
+ * on the first lookup (or by calling {@link #freeze()}), after which it can safely be read from any thread.
+ * When freezing, every combat enchantment is also assigned the registry id of its enchantment,
+ * and an array indexed by registry id is created for {@link #get(int)}.
+ * Enchantments which were not registered get a default {@link CombatEnchantment} which applies to no slots.
+ */
 public class CombatEnchantments {
 	private static final Map<DynamicRegistry.Key<Enchantment>, CombatEnchantment> ENCHANTMENTS = new HashMap<>();
+	private static volatile Map<DynamicRegistry.Key<Enchantment>, CombatEnchantment> frozen;
+	private static volatile CombatEnchantment[] byId;
+	// Defaults for enchantments which were added to the registry after freezing, created once per enchantment
+	private static final Map<DynamicRegistry.Key<Enchantment>, CombatEnchantment> UNKNOWN = new ConcurrentHashMap<>();
 	
+	/**
+	 * Gets the combat enchantment of an enchantment, freezing the registry if it is not frozen yet.
+	 * <p>
+	 * This never returns null: an enchantment which was not registered gets a default {@link CombatEnchantment}
+	 * which applies to no slots. Earlier versions returned null for such enchantments,
+	 * use {@link #isRegistered(DynamicRegistry.Key)} to check whether an enchantment has registered behavior.
+	 *
+	 * @param enchantment the enchantment
+	 * @return the registered combat enchantment, or the default for the enchantment if none was registered
+	 */
 	public static CombatEnchantment get(DynamicRegistry.Key<Enchantment> enchantment) {
-		return ENCHANTMENTS.get(enchantment);
+		Map<DynamicRegistry.Key<Enchantment>, CombatEnchantment> enchantments = frozen;
+		if (enchantments == null) enchantments = freeze();
+		
+		CombatEnchantment combatEnchantment = enchantments.get(enchantment);
+		if (combatEnchantment != null) return combatEnchantment;
+		
+		// Not registered, use the default from the table if it exists
+		return get(MinecraftServer.getEnchantmentRegistry().getId(enchantment), enchantment);
+	}
+	
+	/**
+	 * Gets the combat enchantment by the registry id of its enchantment.
+	 * Like {@link #get(DynamicRegistry.Key)}, enchantments which were not registered get a default.
+	 *
+	 * @param id the registry id of the enchantment
+	 * @return the combat enchantment, or null if there is no enchantment with this id
+	 */
+	public static @Nullable CombatEnchantment get(int id) {
+		CombatEnchantment[] enchantments = byId;
+		if (enchantments == null) {
+			freeze();
+			enchantments = byId;
+		}
+		
+		if (id >= 0 && id < enchantments.length) return enchantments[id];
+		
+		// Enchantment was not known when freezing
+		DynamicRegistry.Key<Enchantment> key = MinecraftServer.getEnchantmentRegistry().getKey(id);
+		return key == null ? null : get(key);
 	}
 	
-	public static void register(CombatEnchantment... enchantments) {
+	/**
+	 * @param enchantment the enchantment
+	 * @return true if a combat enchantment was registered for the enchantment
+	 */
+	public static boolean isRegistered(DynamicRegistry.Key<Enchantment> enchantment) {
+		Map<DynamicRegistry.Key<Enchantment>, CombatEnchantment> enchantments = frozen;
+		if (enchantments == null) enchantments = freeze();
+		return enchantments.containsKey(enchantment);
+	}
+	
+	private static CombatEnchantment get(int id, DynamicRegistry.Key<Enchantment> enchantment) {
+		CombatEnchantment[] enchantments = byId;
+		if (id >= 0 && id < enchantments.length) return enchantments[id];
+		return UNKNOWN.computeIfAbsent(enchantment, key -> new CombatEnchantment(key));
+	}
+	
+	public static synchronized void register(CombatEnchantment... enchantments) {
+		if (frozen != null)
+			throw new IllegalStateException("Combat enchantments can only be registered during startup");
+		
 		for (CombatEnchantment enchantment : enchantments) {
 			ENCHANTMENTS.put(enchantment.getEnchantment(), enchantment);
 		}
 	}
 	
-	public static FeatureType<?>[] getAllFeatureDependencies() {
+	/**
+	 * Freezes the registry, after which no more enchantments can be registered.
+	 *
+	 * @return the frozen registry
+	 */
+	public static synchronized Map<DynamicRegistry.Key<Enchantment>, CombatEnchantment> freeze() {
+		if (frozen == null) {
+			Map<DynamicRegistry.Key<Enchantment>, CombatEnchantment> enchantments = Map.copyOf(ENCHANTMENTS);
+			
+			DynamicRegistry<Enchantment> registry = MinecraftServer.getEnchantmentRegistry();
+			CombatEnchantment[] table = new CombatEnchantment[registry.size()];
+			for (int id = 0; id < table.length; id++) {
+				DynamicRegistry.Key<Enchantment> key = registry.getKey(id);
+				if (key == null) continue;
+				
+				CombatEnchantment combatEnchantment = enchantments.get(key);
+				if (combatEnchantment == null) combatEnchantment = new CombatEnchantment(key);
+				combatEnchantment.setId(id);
+				table[id] = combatEnchantment;
+			}
+			
+			// The table is published first, since lookups by key expect it once the map is visible
+			byId = table;
+			frozen = enchantments;
+		}
+		return frozen;
+	}
+	
+	public static synchronized FeatureType<?>[] getAllFeatureDependencies() {
 		Set<FeatureType<?>> features = new HashSet<>();
 		
 		for (CombatEnchantment enchantment : ENCHANTMENTS.values()) {
@@ -43,7 +144,7 @@ public class CombatEnchantments {
 		registerAll();
 	}
 	
-	public static void registerAll() {
+	public static synchronized void registerAll() {
 		if (registered) return;
 		registered = true;
 		
@@ -0,0 +1,334 @@
+package io.github.togar2.pvp.entity.state;
+
+import io.github.togar2.pvp.feature.cooldown.VanillaAttackCooldownFeature;
+import io.github.togar2.pvp.feature.damage.VanillaDamageFeature;
+import io.github.togar2.pvp.feature.fall.VanillaFallFeature;
+import io.github.togar2.pvp.feature.food.VanillaExhaustionFeature;
+import io.github.togar2.pvp.feature.food.VanillaRegenerationFeature;
+import io.github.togar2.pvp.feature.knockback.KnockbackProfile;
+import io.github.togar2.pvp.player.CombatPlayer;
+import io.github.togar2.pvp.utils.GroundPrediction;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.entity.attribute.Attribute;
+import net.minestom.server.entity.attribute.AttributeInstance;
+import net.minestom.server.item.Material;
+import net.minestom.server.potion.PotionEffect;
+import net.minestom.server.tag.Tag;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the combat state of a single living entity, which the vanilla features read and write every tick.
+ * The state is attached to an entity once, and its values are plain fields instead of tags.
+ * <p>
+ * Use {@link #of(LivingEntity)} to obtain the state of an entity.
+ * {@link CombatPlayer} implementations hold their state directly, other entities store it in a transient tag.
+ * <p>
+ * The tags the features used before (for example {@link VanillaDamageFeature#NEW_DAMAGE_TIME}) are no longer written by default.
+ * Code which still uses them can enable {@link #setTagCompatibility(boolean)}, in which case the old tags are
+ * the storage of these values: every change to the state is written to the tags, and values set on the tags
+ * (also by other code, or loaded with a persistent tag) are read back from them.
+ */
+public final class CombatState {
+	public static final Tag<CombatState> TAG = Tag.Transient("combatState");
+	
+	private static final long NOT_ATTACKED = Long.MIN_VALUE;
+	
+	private static volatile boolean tagCompatibility = false;
+	
+	private final LivingEntity entity;
+	
+	private long newDamageTime = -10000;
+	private float lastDamageAmount = 0;
+	private long lastAttackedTicks = NOT_ATTACKED;
+	private AttributeInstance attackSpeed;
+	private double cachedAttackSpeed = Double.NaN;
+	private double ticksPerFullCharge;
+	private double fallDistance = 0;
+	private float exhaustion = 0;
+	private int starvationTicks = 0;
+	
+	private ItemCooldowns itemCooldowns;
+	private EffectTracker effectTracker;
+	private MovementHistory movementHistory;
+	private EnchantmentSummary enchantmentSummary;
+	private DefenseProfile defenseProfile;
+	
+	private long groundHeightTick = Long.MIN_VALUE;
+	private double groundHeight = Double.NEGATIVE_INFINITY;
+	
+	private @Nullable KnockbackProfile knockbackProfile;
+	
+	public CombatState(LivingEntity entity) {
+		this.entity = entity;
+	}
+	
+	/**
+	 * Gets the combat state of an entity, creating it if it does not exist yet.
+	 *
+	 * @param entity the entity
+	 * @return the combat state of the entity
+	 */
+	public static CombatState of(LivingEntity entity) {
+		if (entity instanceof CombatPlayer combatPlayer) return combatPlayer.getCombatState();
+		return ofTag(entity);
+	}
+	
+	/**
+	 * Gets the combat state of an entity from its {@link #TAG}, creating it if it does not exist yet.
+	 * This is the storage used for entities which do not hold their state directly.
+	 *
+	 * @param entity the entity
+	 * @return the combat state of the entity
+	 */
+	public static CombatState ofTag(LivingEntity entity) {
+		CombatState state = entity.getTag(TAG);
+		if (state != null) return state;
+		return entity.updateAndGetTag(TAG, current -> current == null ? new CombatState(entity) : current);
+	}
+	
+	/**
+	 * Sets whether combat states should be stored in the tags that were used before.
+	 * When enabled, changes to the state are written to the tags, and values set on the tags are read back from them.
+	 * This is disabled by default, since every access boxes the value and goes through the tag handler.
+	 * While disabled, the tags are neither read nor written, so persistent tags are also not saved with the entity.
+	 *
+	 * @param tagCompatibility whether to mirror the state to tags
+	 */
+	public static void setTagCompatibility(boolean tagCompatibility) {
+		CombatState.tagCompatibility = tagCompatibility;
+	}
+	
+	public static boolean hasTagCompatibility() {
+		return tagCompatibility;
+	}
+	
+	public LivingEntity getEntity() {
+		return entity;
+	}
+	
+	/**
+	 * @return the tick (in alive ticks of the entity) until which the entity is invulnerable
+	 */
+	@SuppressWarnings("deprecation")
+	public long getNewDamageTime() {
+		if (tagCompatibility) {
+			Long value = entity.getTag(VanillaDamageFeature.NEW_DAMAGE_TIME);
+			if (value != null) return value;
+		}
+		return newDamageTime;
+	}
+	
+	@SuppressWarnings("deprecation")
+	public void setNewDamageTime(long newDamageTime) {
+		this.newDamageTime = newDamageTime;
+		if (tagCompatibility) entity.setTag(VanillaDamageFeature.NEW_DAMAGE_TIME, newDamageTime);
+	}
+	
+	@SuppressWarnings("deprecation")
+	public float getLastDamageAmount() {
+		if (tagCompatibility) {
+			Float value = entity.getTag(VanillaDamageFeature.LAST_DAMAGE_AMOUNT);
+			if (value != null) return value;
+		}
+		return lastDamageAmount;
+	}
+	
+	@SuppressWarnings("deprecation")
+	public void setLastDamageAmount(float lastDamageAmount) {
+		this.lastDamageAmount = lastDamageAmount;
+		if (tagCompatibility) entity.setTag(VanillaDamageFeature.LAST_DAMAGE_AMOUNT, lastDamageAmount);
+	}
+	
+	public boolean hasAttacked() {
+		return getLastAttackedTicks() != NOT_ATTACKED;
+	}
+	
+	/**
+	 * @return the tick (in alive ticks of the entity) of the last attack, only valid if {@link #hasAttacked()}
+	 */
+	@SuppressWarnings("deprecation")
+	public long getLastAttackedTicks() {
+		if (tagCompatibility) {
+			Long value = entity.getTag(VanillaAttackCooldownFeature.LAST_ATTACKED_TICKS);
+			if (value != null) return value;
+		}
+		return lastAttackedTicks;
+	}
+	
+	@SuppressWarnings("deprecation")
+	public void setLastAttackedTicks(long lastAttackedTicks) {
+		this.lastAttackedTicks = lastAttackedTicks;
+		if (tagCompatibility) entity.setTag(VanillaAttackCooldownFeature.LAST_ATTACKED_TICKS, lastAttackedTicks);
+	}
+	
+	/**
+	 * Gets the amount of ticks it takes for the attack cooldown of the entity to fully charge.
+	 * The attack speed attribute instance is looked up once, and the amount is only recalculated
+	 * when the value of the attribute changed, which happens when its modifiers change.
+	 *
+	 * @return the amount of ticks per full charge
+	 */
+	public double getTicksPerFullCharge() {
+		if (attackSpeed == null) attackSpeed = entity.getAttribute(Attribute.ATTACK_SPEED);
+		
+		double value = attackSpeed.getValue();
+		if (value != cachedAttackSpeed) {
+			cachedAttackSpeed = value;
+			ticksPerFullCharge = (1 / value) * 20;
+		}
+		return ticksPerFullCharge;
+	}
+	
+	@SuppressWarnings("deprecation")
+	public double getFallDistance() {
+		if (tagCompatibility) {
+			Double value = entity.getTag(VanillaFallFeature.FALL_DISTANCE);
+			if (value != null) return value;
+		}
+		return fallDistance;
+	}
+	
+	@SuppressWarnings("deprecation")
+	public void setFallDistance(double fallDistance) {
+		this.fallDistance = fallDistance;
+		if (tagCompatibility) entity.setTag(VanillaFallFeature.FALL_DISTANCE, fallDistance);
+	}
+	
+	@SuppressWarnings("deprecation")
+	public float getExhaustion() {
+		if (tagCompatibility) {
+			Float value = entity.getTag(VanillaExhaustionFeature.EXHAUSTION);
+			if (value != null) return value;
+		}
+		return exhaustion;
+	}
+	
+	@SuppressWarnings("deprecation")
+	public void setExhaustion(float exhaustion) {
+		this.exhaustion = exhaustion;
+		if (tagCompatibility) entity.setTag(VanillaExhaustionFeature.EXHAUSTION, exhaustion);
+	}
+	
+	@SuppressWarnings("deprecation")
+	public int getStarvationTicks() {
+		if (tagCompatibility) {
+			Integer value = entity.getTag(VanillaRegenerationFeature.STARVATION_TICKS);
+			if (value != null) return value;
+		}
+		return starvationTicks;
+	}
+	
+	@SuppressWarnings("deprecation")
+	public void setStarvationTicks(int starvationTicks) {
+		this.starvationTicks = starvationTicks;
+		if (tagCompatibility) entity.setTag(VanillaRegenerationFeature.STARVATION_TICKS, starvationTicks);
+	}
+	
+	/**
+	 * @return the item cooldowns of the entity
+	 */
+	public ItemCooldowns getItemCooldowns() {
+		if (itemCooldowns == null) itemCooldowns = new ItemCooldowns();
+		return itemCooldowns;
+	}
+	
+	/**
+	 * @return a copy of the item cooldown end times (in milliseconds) of the entity, for cooldown groups which are materials
+	 * @deprecated the cooldowns are kept in ticks in {@link #getItemCooldowns()}, changes to the returned map have no effect
+	 */
+	@Deprecated
+	public Map<Material, Long> getItemCooldownEnd() {
+		Map<Material, Long> cooldownEnd = new HashMap<>();
+		long time = System.currentTimeMillis();
+		getItemCooldowns().forEach(entity.getAliveTicks(), (group, ticksLeft) -> {
+			Material material = Material.fromKey(group);
+			if (material != null) cooldownEnd.put(material, time + (long) ticksLeft * MinecraftServer.TICK_MS);
+		});
+		return cooldownEnd;
+	}
+	
+	public void resetItemCooldowns() {
+		getItemCooldowns().clear();
+	}
+	
+	/**
+	 * @return the tracker of the active effects of the entity
+	 */
+	public EffectTracker getEffectTracker() {
+		if (effectTracker == null) effectTracker = new EffectTracker();
+		return effectTracker;
+	}
+	
+	/**
+	 * @return a copy of the amount of ticks left for every effect the entity has
+	 * @deprecated the durations are kept in {@link #getEffectTracker()}, changes to the returned map have no effect
+	 */
+	@Deprecated
+	public Map<PotionEffect, Integer> getEffectDurationLeft() {
+		return getEffectTracker().toMap(entity.getAliveTicks());
+	}
+	
+	/**
+	 * @return the recently recorded positions of the entity
+	 */
+	public MovementHistory getMovementHistory() {
+		if (movementHistory == null) movementHistory = new MovementHistory();
+		return movementHistory;
+	}
+	
+	/**
+	 * @return the summary of the enchantments on the equipment of the entity
+	 */
+	public EnchantmentSummary getEnchantmentSummary() {
+		if (enchantmentSummary == null) enchantmentSummary = new EnchantmentSummary(entity);
+		return enchantmentSummary;
+	}
+	
+	/**
+	 * @return the cached values used to reduce damage taken by the entity
+	 */
+	public DefenseProfile getDefenseProfile() {
+		if (defenseProfile == null) defenseProfile = new DefenseProfile(entity);
+		return defenseProfile;
+	}
+	
+	/**
+	 * @return the tick (in alive ticks of the entity) at which the ground height was cached
+	 */
+	public long getGroundHeightTick() {
+		return groundHeightTick;
+	}
+	
+	/**
+	 * @return the cached height of the ground below the entity, see {@link GroundPrediction#getGroundHeight(LivingEntity)}
+	 */
+	public double getGroundHeight() {
+		return groundHeight;
+	}
+	
+	public void setGroundHeight(long tick, double groundHeight) {
+		this.groundHeightTick = tick;
+		this.groundHeight = groundHeight;
+	}
+	
+	/**
+	 * @return the knockback profile of this entity, or null if the profile of the instance or feature is used
+	 */
+	public @Nullable KnockbackProfile getKnockbackProfile() {
+		return knockbackProfile;
+	}
+	
+	/**
+	 * Sets the knockback profile which is used when this entity takes knockback,
+	 * overriding the profile of its instance and the default profile of the knockback feature.
+	 *
+	 * @param knockbackProfile the profile, or null to remove the override
+	 */
+	public void setKnockbackProfile(@Nullable KnockbackProfile knockbackProfile) {
+		this.knockbackProfile = knockbackProfile;
+	}
+}
@@ -0,0 +1,81 @@
+package io.github.togar2.pvp.entity.state;
+
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.entity.attribute.Attribute;
+import net.minestom.server.entity.attribute.AttributeInstance;
+import net.minestom.server.entity.damage.DamageType;
+
+import java.util.function.ToIntBiFunction;
+
+/**
+ * Caches the values an entity needs to reduce incoming damage.
+ * <p>
+ * The armor and armor toughness attribute instances are looked up once, their values are cached by the attributes themselves.
+ * The protection amount (enchantment protection factor) is cached per damage type,
+ * and is cleared when the equipment of the entity changes (see {@link EnchantmentSummary#getVersion()}).
+ */
+public final class DefenseProfile {
+	private static final int PROTECTION_CACHE_SIZE = 8;
+	
+	private final LivingEntity entity;
+	
+	private AttributeInstance armor;
+	private AttributeInstance armorToughness;
+	
+	private int enchantmentVersion = -1;
+	private ToIntBiFunction<LivingEntity, DamageType> protectionCalculator;
+	private final DamageType[] protectionTypes = new DamageType[PROTECTION_CACHE_SIZE];
+	private final int[] protectionAmounts = new int[PROTECTION_CACHE_SIZE];
+	private int protectionCount = 0;
+	
+	public DefenseProfile(LivingEntity entity) {
+		this.entity = entity;
+	}
+	
+	public double getArmor() {
+		if (armor == null) armor = entity.getAttribute(Attribute.ARMOR);
+		return armor.getValue();
+	}
+	
+	public double getArmorToughness() {
+		if (armorToughness == null) armorToughness = entity.getAttribute(Attribute.ARMOR_TOUGHNESS);
+		return armorToughness.getValue();
+	}
+	
+	/**
+	 * Gets the protection amount of the entity against the damage type.
+	 * The amount is only calculated if it is not cached yet, or if the equipment or calculator changed since it was cached.
+	 *
+	 * @param type the damage type
+	 * @param calculator the function calculating the protection amount, usually bound to an enchantment feature
+	 * @return the protection amount
+	 */
+	public int getProtectionAmount(DamageType type, ToIntBiFunction<LivingEntity, DamageType> calculator) {
+		int version = CombatState.of(entity).getEnchantmentSummary().getVersion();
+		if (version != enchantmentVersion || calculator != protectionCalculator) {
+			enchantmentVersion = version;
+			protectionCalculator = calculator;
+			clearProtection();
+		}
+		
+		for (int i = 0; i < protectionCount; i++) {
+			if (protectionTypes[i] == type) return protectionAmounts[i];
+		}
+		
+		int amount = calculator.applyAsInt(entity, type);
+		if (protectionCount < PROTECTION_CACHE_SIZE) {
+			protectionTypes[protectionCount] = type;
+			protectionAmounts[protectionCount] = amount;
+			protectionCount++;
+		}
+		
+		return amount;
+	}
+	
+	private void clearProtection() {
+		for (int i = 0; i < protectionCount; i++) {
+			protectionTypes[i] = null;
+		}
+		protectionCount = 0;
+	}
+}
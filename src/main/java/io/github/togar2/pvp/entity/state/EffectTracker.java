@@ -0,0 +1,172 @@
+package io.github.togar2.pvp.entity.state;
+
+import net.minestom.server.potion.Potion;
+import net.minestom.server.potion.PotionEffect;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks the active effects of an entity, in arrays indexed by the id of the effect.
+ * <p>
+ * For every effect it keeps the tick at which the effect ends, from which the amount of ticks left is derived.
+ * The amount of ticks left is used to decide when the effect should apply its update.
+ * Infinite effects have no end tick, their updates are timed from the tick at which they started instead.
+ * <p>
+ * Like in vanilla, when an effect is replaced by a stronger effect of the same type which ends earlier,
+ * the weaker effect is kept as a hidden effect, which is restored once the stronger effect ends.
+ * Minestom removes the old effect before adding the new one, so the tracker remembers the effect removed in a tick
+ * until the effect of the same type is added again in the same tick.
+ */
+public final class EffectTracker {
+	/**
+	 * The duration left of an effect which is not tracked.
+	 */
+	public static final int NONE = Integer.MIN_VALUE;
+	
+	private static final long INFINITE_END = Long.MAX_VALUE;
+	private static final long UNTRACKED = Long.MIN_VALUE;
+	
+	private final long[] endTick;
+	private final long[] startTick;
+	
+	// The effect removed in the tick stored in removedTick, which might be replaced by an effect added in the same tick
+	private final Potion[] removed;
+	private final long[] removedEndTick;
+	private final long[] removedTick;
+	
+	private final Potion[] hidden;
+	private final long[] hiddenEndTick;
+	
+	public EffectTracker() {
+		int size = PotionEffect.values().size();
+		this.endTick = new long[size];
+		this.startTick = new long[size];
+		this.removed = new Potion[size];
+		this.removedEndTick = new long[size];
+		this.removedTick = new long[size];
+		this.hidden = new Potion[size];
+		this.hiddenEndTick = new long[size];
+		
+		for (int i = 0; i < size; i++) {
+			endTick[i] = UNTRACKED;
+			removedTick[i] = Long.MIN_VALUE;
+		}
+	}
+	
+	/**
+	 * @param effect the effect
+	 * @param tick the current tick (in alive ticks of the entity)
+	 * @return the amount of ticks left for the effect, {@link Integer#MAX_VALUE} if the effect is infinite,
+	 * or {@link #NONE} if the effect is not tracked
+	 */
+	public int getDurationLeft(PotionEffect effect, long tick) {
+		int id = effect.id();
+		if (id >= endTick.length || endTick[id] == UNTRACKED) return NONE;
+		if (endTick[id] == INFINITE_END) return Integer.MAX_VALUE;
+		return (int) Math.max(endTick[id] - tick, 0);
+	}
+	
+	/**
+	 * Gets the duration which is passed to {@link io.github.togar2.pvp.potion.effect.CombatPotionEffect#canApplyUpdateEffect(int, int)},
+	 * which decreases by one every tick. For an infinite effect it counts down from {@link Integer#MAX_VALUE}
+	 * since the tick at which the effect was added.
+	 *
+	 * @param effect the effect
+	 * @param tick the current tick (in alive ticks of the entity)
+	 * @return the duration, or {@link #NONE} if the effect is not tracked
+	 */
+	public int getUpdateDuration(PotionEffect effect, long tick) {
+		int id = effect.id();
+		if (id >= endTick.length || endTick[id] == UNTRACKED) return NONE;
+		if (endTick[id] == INFINITE_END) return (int) Math.max(Integer.MAX_VALUE - (tick - startTick[id]), 0);
+		return (int) Math.max(endTick[id] - tick, 0);
+	}
+	
+	/**
+	 * Starts tracking an effect which was added to the entity.
+	 * If an effect of the same type was removed in the same tick, it is kept as a hidden effect
+	 * if it is weaker and lasts longer than the added effect.
+	 *
+	 * @param potion the added potion
+	 * @param tick the current tick (in alive ticks of the entity)
+	 */
+	public void add(Potion potion, long tick) {
+		int id = potion.effect().id();
+		if (id >= endTick.length) return;
+		
+		boolean infinite = potion.duration() == Potion.INFINITE_DURATION;
+		endTick[id] = infinite ? INFINITE_END : tick + potion.duration();
+		startTick[id] = tick;
+		
+		Potion replaced = removedTick[id] == tick ? removed[id] : null;
+		removed[id] = null;
+		
+		if (replaced == null) {
+			hidden[id] = null;
+		} else if (replaced.amplifier() < potion.amplifier() && removedEndTick[id] > endTick[id]) {
+			hidden[id] = replaced;
+			hiddenEndTick[id] = removedEndTick[id];
+		} else if (hidden[id] != null && (hidden[id].amplifier() >= potion.amplifier() || hiddenEndTick[id] <= endTick[id])) {
+			// The hidden effect of the replaced effect is no longer useful under the new effect
+			hidden[id] = null;
+		}
+	}
+	
+	/**
+	 * Stops tracking an effect which was removed from the entity.
+	 * If the effect ended and a hidden effect of the same type is still running, the hidden effect is returned.
+	 * The caller is responsible for adding it to the entity again.
+	 *
+	 * @param potion the removed potion
+	 * @param tick the current tick (in alive ticks of the entity)
+	 * @return the hidden effect to restore, with its remaining duration, or null if there is none
+	 */
+	public @Nullable Potion remove(Potion potion, long tick) {
+		int id = potion.effect().id();
+		if (id >= endTick.length) return null;
+		
+		long end = endTick[id];
+		endTick[id] = UNTRACKED;
+		if (end == UNTRACKED) return null;
+		
+		if (tick < end) {
+			// Removed before it ended, either cleared or replaced by an effect added in the same tick
+			removed[id] = potion;
+			removedEndTick[id] = end;
+			removedTick[id] = tick;
+			return null;
+		}
+		
+		Potion hiddenPotion = hidden[id];
+		hidden[id] = null;
+		if (hiddenPotion == null || hiddenEndTick[id] <= tick) return null;
+		
+		int duration = hiddenEndTick[id] == INFINITE_END ? Potion.INFINITE_DURATION : (int) (hiddenEndTick[id] - tick);
+		return new Potion(hiddenPotion.effect(), hiddenPotion.amplifier(), duration, hiddenPotion.flags());
+	}
+	
+	/**
+	 * @param effect the effect
+	 * @return the hidden effect of the given type, or null if there is none
+	 */
+	public @Nullable Potion getHidden(PotionEffect effect) {
+		int id = effect.id();
+		return id < hidden.length ? hidden[id] : null;
+	}
+	
+	/**
+	 * @param tick the current tick (in alive ticks of the entity)
+	 * @return a copy of the durations left of all tracked effects
+	 */
+	public Map<PotionEffect, Integer> toMap(long tick) {
+		Map<PotionEffect, Integer> map = new HashMap<>();
+		for (int id = 0; id < endTick.length; id++) {
+			PotionEffect effect = PotionEffect.fromId(id);
+			int durationLeft = getDurationLeft(effect, tick);
+			if (durationLeft != NONE) map.put(effect, durationLeft);
+		}
+		return map;
+	}
+}
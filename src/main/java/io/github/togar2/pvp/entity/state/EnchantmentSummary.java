@@ -0,0 +1,213 @@
+package io.github.togar2.pvp.entity.state;
+
+import io.github.togar2.pvp.enchantment.CombatEnchantment;
+import io.github.togar2.pvp.enchantment.CombatEnchantments;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.component.DataComponents;
+import net.minestom.server.entity.EquipmentSlot;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.item.ItemStack;
+import net.minestom.server.item.component.EnchantmentList;
+import net.minestom.server.item.enchant.Enchantment;
+import net.minestom.server.registry.DynamicRegistry;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Summary of the enchantments on the equipment of an entity.
+ * <p>
+ * The summary keeps the total level of every enchantment in an array indexed by the registry id of the enchantment,
+ * counting only the slots in which the {@link CombatEnchantment} applies. It also keeps a flat list of every enchantment
+ * on every equipment slot, for effects which apply to all enchantments of an entity, and which of those entries
+ * react to damage, so that entities without such enchantments do not need to iterate anything when they are hit.
+ * <p>
+ * Before every query, the equipment of the entity is compared by identity with the equipment the summary was built from.
+ * Since item stacks are immutable, any change of equipment (equipping, switching the held slot, an item taking damage)
+ * replaces the stack, and the summary is rebuilt on the next query.
+ */
+public final class EnchantmentSummary {
+	private static final EquipmentSlot[] SLOTS = EquipmentSlot.values();
+	
+	private final LivingEntity entity;
+	private final ItemStack[] stacks = new ItemStack[SLOTS.length];
+	
+	private int[] levels = new int[0];
+	
+	// Every enchantment on every slot, rebuilt as new arrays so that iterations in progress are not affected
+	private EquipmentSlot[] entrySlots = new EquipmentSlot[0];
+	private CombatEnchantment[] entryEnchantments = new CombatEnchantment[0];
+	private int[] entryLevels = new int[0];
+	
+	// Indices of the entries whose enchantment reacts to the entity damaging or being damaged
+	private int[] userDamagedEntries = new int[0];
+	private int[] targetDamagedEntries = new int[0];
+	
+	private int version = 0;
+	
+	public EnchantmentSummary(LivingEntity entity) {
+		this.entity = entity;
+	}
+	
+	/**
+	 * Gets the total level of the enchantment on the equipment of the entity,
+	 * only counting the slots in which the enchantment applies.
+	 *
+	 * @param enchantment the enchantment
+	 * @return the total level
+	 */
+	public int getLevel(DynamicRegistry.Key<Enchantment> enchantment) {
+		return getLevel(CombatEnchantments.get(enchantment).getId());
+	}
+	
+	/**
+	 * Gets the total level of the enchantment with the given registry id.
+	 *
+	 * @param enchantmentId the registry id of the enchantment
+	 * @return the total level
+	 * @see #getLevel(DynamicRegistry.Key)
+	 */
+	public int getLevel(int enchantmentId) {
+		update();
+		int[] levels = this.levels;
+		return enchantmentId >= 0 && enchantmentId < levels.length ? levels[enchantmentId] : 0;
+	}
+	
+	/**
+	 * Calls the consumer for every enchantment on every equipment slot of the entity.
+	 * Changes to the equipment made by the consumer do not affect the iteration.
+	 *
+	 * @param consumer the consumer
+	 */
+	public void forEach(EntryConsumer consumer) {
+		update();
+		EquipmentSlot[] slots = entrySlots;
+		CombatEnchantment[] enchantments = entryEnchantments;
+		int[] levels = entryLevels;
+		
+		for (int i = 0; i < slots.length; i++) {
+			consumer.accept(slots[i], enchantments[i], levels[i]);
+		}
+	}
+	
+	/**
+	 * Calls the consumer for every enchantment on the equipment of the entity which reacts to the entity being damaged,
+	 * see {@link CombatEnchantment#reactsToUserDamaged()}.
+	 * Does nothing if the entity carries no such enchantment.
+	 *
+	 * @param consumer the consumer
+	 */
+	public void forEachUserDamaged(EntryConsumer consumer) {
+		update();
+		forEach(userDamagedEntries, consumer);
+	}
+	
+	/**
+	 * Calls the consumer for every enchantment on the equipment of the entity which reacts to the entity damaging a target,
+	 * see {@link CombatEnchantment#reactsToTargetDamaged()}.
+	 * Does nothing if the entity carries no such enchantment.
+	 *
+	 * @param consumer the consumer
+	 */
+	public void forEachTargetDamaged(EntryConsumer consumer) {
+		update();
+		forEach(targetDamagedEntries, consumer);
+	}
+	
+	private void forEach(int[] indices, EntryConsumer consumer) {
+		if (indices.length == 0) return;
+		
+		EquipmentSlot[] slots = entrySlots;
+		CombatEnchantment[] enchantments = entryEnchantments;
+		int[] levels = entryLevels;
+		
+		for (int index : indices) {
+			consumer.accept(slots[index], enchantments[index], levels[index]);
+		}
+	}
+	
+	/**
+	 * Gets the version of the summary, which changes every time the summary is rebuilt.
+	 * Can be used to invalidate values derived from the equipment of the entity.
+	 *
+	 * @return the version
+	 */
+	public int getVersion() {
+		update();
+		return version;
+	}
+	
+	private void update() {
+		boolean changed = false;
+		for (int i = 0; i < SLOTS.length; i++) {
+			ItemStack stack = entity.getEquipment(SLOTS[i]);
+			if (stack != stacks[i]) {
+				stacks[i] = stack;
+				changed = true;
+			}
+		}
+		
+		if (changed) rebuild();
+	}
+	
+	private void rebuild() {
+		int size = MinecraftServer.getEnchantmentRegistry().size();
+		int[] levels = this.levels.length == size ? this.levels : new int[size];
+		Arrays.fill(levels, 0);
+		
+		int entryCount = 0;
+		EquipmentSlot[] slots = new EquipmentSlot[4];
+		CombatEnchantment[] enchantments = new CombatEnchantment[4];
+		int[] entryLevels = new int[4];
+		
+		for (int i = 0; i < SLOTS.length; i++) {
+			ItemStack stack = stacks[i];
+			if (stack == null || stack.isAir()) continue;
+			
+			EnchantmentList enchantmentList = stack.get(DataComponents.ENCHANTMENTS);
+			if (enchantmentList == null) continue;
+			
+			for (Map.Entry<DynamicRegistry.Key<Enchantment>, Integer> entry : enchantmentList.enchantments().entrySet()) {
+				CombatEnchantment combatEnchantment = CombatEnchantments.get(entry.getKey());
+				int level = entry.getValue();
+				
+				if (entryCount == slots.length) {
+					slots = Arrays.copyOf(slots, entryCount * 2);
+					enchantments = Arrays.copyOf(enchantments, entryCount * 2);
+					entryLevels = Arrays.copyOf(entryLevels, entryCount * 2);
+				}
+				slots[entryCount] = SLOTS[i];
+				enchantments[entryCount] = combatEnchantment;
+				entryLevels[entryCount] = level;
+				entryCount++;
+				
+				if (combatEnchantment.appliesTo(SLOTS[i])) {
+					int id = combatEnchantment.getId();
+					if (id >= 0 && id < levels.length) levels[id] += level;
+				}
+			}
+		}
+		
+		this.levels = levels;
+		this.entrySlots = Arrays.copyOf(slots, entryCount);
+		this.entryEnchantments = Arrays.copyOf(enchantments, entryCount);
+		this.entryLevels = Arrays.copyOf(entryLevels, entryCount);
+		
+		int userDamagedCount = 0, targetDamagedCount = 0;
+		int[] userDamaged = new int[entryCount];
+		int[] targetDamaged = new int[entryCount];
+		for (int i = 0; i < entryCount; i++) {
+			if (enchantments[i].reactsToUserDamaged()) userDamaged[userDamagedCount++] = i;
+			if (enchantments[i].reactsToTargetDamaged()) targetDamaged[targetDamagedCount++] = i;
+		}
+		this.userDamagedEntries = Arrays.copyOf(userDamaged, userDamagedCount);
+		this.targetDamagedEntries = Arrays.copyOf(targetDamaged, targetDamagedCount);
+		
+		version++;
+	}
+	
+	@FunctionalInterface
+	public interface EntryConsumer {
+		void accept(EquipmentSlot slot, CombatEnchantment enchantment, int level);
+	}
+}
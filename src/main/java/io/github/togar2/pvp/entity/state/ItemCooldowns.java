@@ -0,0 +1,172 @@
+package io.github.togar2.pvp.entity.state;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * The item cooldowns of an entity, keyed by cooldown group.
+ * <p>
+ * The cooldown group of an item is the group of its {@code use_cooldown} component,
+ * or the key of its material if it has none, like in vanilla.
+ * Cooldowns end at a tick (in alive ticks of the entity) instead of a point in time,
+ * so they last the same amount of ticks regardless of server lag.
+ * <p>
+ * An entity rarely has more than a few cooldowns at once, so they are stored in small arrays which are searched linearly.
+ * <p>
+ * The groups whose cooldown changed are remembered until they are drained,
+ * so that the client can be updated once per tick with only the latest cooldown of every changed group.
+ */
+public final class ItemCooldowns {
+	private String[] groups = new String[4];
+	private long[] startTicks = new long[4];
+	private long[] endTicks = new long[4];
+	private int size = 0;
+	
+	private String[] changed = new String[4];
+	private int changedSize = 0;
+	
+	public boolean isEmpty() {
+		return size == 0;
+	}
+	
+	/**
+	 * @return true if the cooldown of a group changed since the changes were last drained
+	 */
+	public boolean hasChanges() {
+		return changedSize != 0;
+	}
+	
+	/**
+	 * @param group the cooldown group
+	 * @param tick the current tick
+	 * @return true if the group has a cooldown which has not ended at the given tick
+	 */
+	public boolean hasCooldown(String group, long tick) {
+		int index = indexOf(group);
+		return index != -1 && endTicks[index] > tick;
+	}
+	
+	/**
+	 * @param group the cooldown group
+	 * @param tick the current tick
+	 * @return the amount of ticks left of the cooldown of the group, or 0 if it has no cooldown
+	 */
+	public int getTicksLeft(String group, long tick) {
+		int index = indexOf(group);
+		return index == -1 ? 0 : (int) Math.max(endTicks[index] - tick, 0);
+	}
+	
+	/**
+	 * @param group the cooldown group
+	 * @param tick the current tick
+	 * @return the progress of the cooldown of the group, from 1 when it started to 0 when it ended
+	 */
+	public float getProgress(String group, long tick) {
+		int index = indexOf(group);
+		if (index == -1 || endTicks[index] <= tick) return 0;
+		return (float) (endTicks[index] - tick) / (float) (endTicks[index] - startTicks[index]);
+	}
+	
+	/**
+	 * Sets the cooldown of a group, replacing the current cooldown of the group.
+	 *
+	 * @param group the cooldown group
+	 * @param tick the current tick
+	 * @param ticks the duration of the cooldown in ticks, 0 or less to remove the cooldown
+	 */
+	public void set(String group, long tick, int ticks) {
+		int index = indexOf(group);
+		markChanged(group);
+		if (ticks <= 0) {
+			if (index != -1) removeAt(index);
+			return;
+		}
+		
+		if (index == -1) {
+			if (size == groups.length) {
+				groups = Arrays.copyOf(groups, size * 2);
+				startTicks = Arrays.copyOf(startTicks, size * 2);
+				endTicks = Arrays.copyOf(endTicks, size * 2);
+			}
+			index = size++;
+			groups[index] = group;
+		}
+		
+		startTicks[index] = tick;
+		endTicks[index] = tick + ticks;
+	}
+	
+	/**
+	 * Removes all cooldowns which have ended at the given tick, and marks their groups as changed.
+	 *
+	 * @param tick the current tick
+	 */
+	public void removeExpired(long tick) {
+		for (int i = size - 1; i >= 0; i--) {
+			if (endTicks[i] <= tick) {
+				markChanged(groups[i]);
+				removeAt(i);
+			}
+		}
+	}
+	
+	/**
+	 * Calls the consumer with the group and the amount of ticks left for every group whose cooldown changed
+	 * since the changes were last drained, and forgets the changes.
+	 * The amount of ticks left is 0 for groups whose cooldown was removed.
+	 *
+	 * @param tick the current tick
+	 * @param consumer the consumer
+	 */
+	public void drainChanges(long tick, ObjIntConsumer<String> consumer) {
+		for (int i = 0; i < changedSize; i++) {
+			String group = changed[i];
+			changed[i] = null;
+			consumer.accept(group, getTicksLeft(group, tick));
+		}
+		changedSize = 0;
+	}
+	
+	/**
+	 * Calls the consumer with the group and the amount of ticks left for every cooldown.
+	 *
+	 * @param tick the current tick
+	 * @param consumer the consumer
+	 */
+	public void forEach(long tick, ObjIntConsumer<String> consumer) {
+		for (int i = 0; i < size; i++) {
+			consumer.accept(groups[i], (int) Math.max(endTicks[i] - tick, 0));
+		}
+	}
+	
+	public void clear() {
+		Arrays.fill(groups, 0, size, null);
+		size = 0;
+		Arrays.fill(changed, 0, changedSize, null);
+		changedSize = 0;
+	}
+	
+	private void markChanged(String group) {
+		for (int i = 0; i < changedSize; i++) {
+			if (changed[i].equals(group)) return;
+		}
+		
+		if (changedSize == changed.length) changed = Arrays.copyOf(changed, changedSize * 2);
+		changed[changedSize++] = group;
+	}
+	
+	private int indexOf(String group) {
+		for (int i = 0; i < size; i++) {
+			if (groups[i].equals(group)) return i;
+		}
+		return -1;
+	}
+	
+	private void removeAt(int index) {
+		int last = --size;
+		groups[index] = groups[last];
+		startTicks[index] = startTicks[last];
+		endTicks[index] = endTicks[last];
+		groups[last] = null;
+	}
+}
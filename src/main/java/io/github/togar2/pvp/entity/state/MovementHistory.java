@@ -0,0 +1,149 @@
+package io.github.togar2.pvp.entity.state;
+
+/**
+ * A fixed capacity ring buffer of the recent movement of an entity, one entry per tick.
+ * Every entry holds a position, a velocity (in blocks per second) and whether the entity was on the ground.
+ * Entries are stored in primitive arrays and are accessed by their age, where age 0 is the most recent entry.
+ * <p>
+ * The tick of an entry is the amount of alive ticks of the entity when it was recorded.
+ */
+public final class MovementHistory {
+	/**
+	 * Two seconds of history, which covers the latency of almost every player.
+	 */
+	public static final int DEFAULT_CAPACITY = 40;
+	
+	private final long[] ticks;
+	private final double[] x, y, z;
+	private final double[] velocityX, velocityY, velocityZ;
+	private final boolean[] onGround;
+	
+	private int head = 0; // Index of the next entry to write
+	private int size = 0;
+	
+	public MovementHistory() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	public MovementHistory(int capacity) {
+		if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+		this.ticks = new long[capacity];
+		this.x = new double[capacity];
+		this.y = new double[capacity];
+		this.z = new double[capacity];
+		this.velocityX = new double[capacity];
+		this.velocityY = new double[capacity];
+		this.velocityZ = new double[capacity];
+		this.onGround = new boolean[capacity];
+	}
+	
+	/**
+	 * Records a position without velocity, for entities whose velocity is not known.
+	 * If an entry has already been recorded for this tick, it is overwritten.
+	 *
+	 * @param tick the current tick
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @param z the z coordinate
+	 */
+	public void record(long tick, double x, double y, double z) {
+		record(tick, x, y, z, 0, 0, 0, false);
+	}
+	
+	/**
+	 * Records the movement of a tick. If an entry has already been recorded for this tick, it is overwritten.
+	 *
+	 * @param tick the current tick
+	 * @param x the x coordinate
+	 * @param y the y coordinate
+	 * @param z the z coordinate
+	 * @param velocityX the x velocity
+	 * @param velocityY the y velocity
+	 * @param velocityZ the z velocity
+	 * @param onGround whether the entity is on the ground
+	 */
+	public void record(long tick, double x, double y, double z,
+	                   double velocityX, double velocityY, double velocityZ, boolean onGround) {
+		int index;
+		if (size > 0 && ticks[index(0)] == tick) {
+			index = index(0);
+		} else {
+			index = head;
+			head = (head + 1) % ticks.length;
+			if (size < ticks.length) size++;
+		}
+		
+		this.ticks[index] = tick;
+		this.x[index] = x;
+		this.y[index] = y;
+		this.z[index] = z;
+		this.velocityX[index] = velocityX;
+		this.velocityY[index] = velocityY;
+		this.velocityZ[index] = velocityZ;
+		this.onGround[index] = onGround;
+	}
+	
+	public void clear() {
+		head = 0;
+		size = 0;
+	}
+	
+	public int size() {
+		return size;
+	}
+	
+	public int capacity() {
+		return ticks.length;
+	}
+	
+	/**
+	 * Finds the most recent entry which was recorded at or before the given tick.
+	 *
+	 * @param tick the tick
+	 * @return the age of the entry, or -1 if there is none
+	 */
+	public int ageAt(long tick) {
+		for (int age = 0; age < size; age++) {
+			if (ticks[index(age)] <= tick) return age;
+		}
+		return -1;
+	}
+	
+	public long getTick(int age) {
+		return ticks[index(age)];
+	}
+	
+	public double getX(int age) {
+		return x[index(age)];
+	}
+	
+	public double getY(int age) {
+		return y[index(age)];
+	}
+	
+	public double getZ(int age) {
+		return z[index(age)];
+	}
+	
+	public double getVelocityX(int age) {
+		return velocityX[index(age)];
+	}
+	
+	public double getVelocityY(int age) {
+		return velocityY[index(age)];
+	}
+	
+	public double getVelocityZ(int age) {
+		return velocityZ[index(age)];
+	}
+	
+	public boolean isOnGround(int age) {
+		return onGround[index(age)];
+	}
+	
+	private int index(int age) {
+		if (age < 0 || age >= size) throw new IndexOutOfBoundsException(age);
+		int index = head - 1 - age;
+		return index < 0 ? index + ticks.length : index;
+	}
+}
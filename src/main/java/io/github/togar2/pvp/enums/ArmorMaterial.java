@@ -1,5 +1,6 @@
 package io.github.togar2.pvp.enums;
 
+import io.github.togar2.pvp.utils.AttributeModifierUtil;
 import io.github.togar2.pvp.utils.CombatVersion;
 import io.github.togar2.pvp.utils.ModifierId;
 import net.kyori.adventure.key.Key;
@@ -13,7 +14,6 @@ import net.minestom.server.item.ItemStack;
 import net.minestom.server.item.Material;
 import net.minestom.server.sound.SoundEvent;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
@@ -71,30 +71,30 @@ public enum ArmorMaterial {
 	
 	public static void updateEquipmentAttributes(LivingEntity entity, ItemStack oldStack, ItemStack newStack,
 	                                             EquipmentSlot slot, CombatVersion version) {
-		ArmorMaterial oldMaterial = fromMaterial(oldStack.material());
-		ArmorMaterial newMaterial = fromMaterial(newStack.material());
+		// Only the attributes whose modifier differs between the old and the new armor are updated
+		AttributeModifierUtil.replaceModifiers(entity,
+				getDefaultModifiers(oldStack, slot, version),
+				getDefaultModifiers(newStack, slot, version));
+	}
+	
+	private static Map<Attribute, AttributeModifier> getDefaultModifiers(ItemStack stack, EquipmentSlot slot,
+	                                                                     CombatVersion version) {
+		ArmorMaterial material = fromMaterial(stack.material());
+		if (material == null || !hasDefaultAttributes(stack)) return Map.of();
+		if (slot != getRequiredSlot(stack.material())) return Map.of();
 		
 		Key modifierId = getModifierId(slot);
-		
-		// Remove attributes from previous armor
-		if (oldMaterial != null && hasDefaultAttributes(oldStack)) {
-			if (slot == getRequiredSlot(oldStack.material())) {
-				entity.getAttribute(Attribute.ARMOR).removeModifier(modifierId);
-				entity.getAttribute(Attribute.ARMOR_TOUGHNESS).removeModifier(modifierId);
-				entity.getAttribute(Attribute.KNOCKBACK_RESISTANCE).removeModifier(modifierId);
-			}
+		AttributeModifier armor = new AttributeModifier(modifierId, material.getProtectionAmount(slot, version), AttributeOperation.ADD_VALUE);
+		AttributeModifier toughness = new AttributeModifier(modifierId, material.getToughness(), AttributeOperation.ADD_VALUE);
+		if (material.getKnockbackResistance() > 0) {
+			return Map.of(
+					Attribute.ARMOR, armor,
+					Attribute.ARMOR_TOUGHNESS, toughness,
+					Attribute.KNOCKBACK_RESISTANCE, new AttributeModifier(modifierId, material.getKnockbackResistance(), AttributeOperation.ADD_VALUE)
+			);
 		}
 		
-		// Add attributes from new armor
-		if (newMaterial != null && hasDefaultAttributes(newStack)) {
-			if (slot == getRequiredSlot(newStack.material())) {
-				entity.getAttribute(Attribute.ARMOR).addModifier(new AttributeModifier(modifierId, newMaterial.getProtectionAmount(slot, version), AttributeOperation.ADD_VALUE));
-				entity.getAttribute(Attribute.ARMOR_TOUGHNESS).addModifier(new AttributeModifier(modifierId, newMaterial.getToughness(), AttributeOperation.ADD_VALUE));
-				if (newMaterial.getKnockbackResistance() > 0) {
-					entity.getAttribute(Attribute.KNOCKBACK_RESISTANCE).addModifier(new AttributeModifier(modifierId, newMaterial.getKnockbackResistance(), AttributeOperation.ADD_VALUE));
-				}
-			}
-		}
+		return Map.of(Attribute.ARMOR, armor, Attribute.ARMOR_TOUGHNESS, toughness);
 	}
 	
 	private static boolean hasDefaultAttributes(ItemStack stack) {
@@ -108,10 +108,13 @@ public enum ArmorMaterial {
 		return slot == null ? EquipmentSlot.HELMET : slot;
 	}
 	
-	private static final Map<Material, ArmorMaterial> MATERIAL_TO_ARMOR_MATERIAL = new HashMap<>();
+	// Indexed by material id
+	private static final ArmorMaterial[] BY_MATERIAL_ID;
 	
 	public static ArmorMaterial fromMaterial(Material material) {
-		return MATERIAL_TO_ARMOR_MATERIAL.get(material);
+		if (material == null) return null;
+		int id = material.id();
+		return id < BY_MATERIAL_ID.length ? BY_MATERIAL_ID[id] : null;
 	}
 	
 	public static Key getModifierId(EquipmentSlot slot) {
@@ -119,9 +122,17 @@ public enum ArmorMaterial {
 	}
 	
 	static {
+		int size = 0;
+		for (ArmorMaterial armorMaterial : values()) {
+			for (Material material : armorMaterial.items) {
+				size = Math.max(size, material.id() + 1);
+			}
+		}
+		
+		BY_MATERIAL_ID = new ArmorMaterial[size];
 		for (ArmorMaterial armorMaterial : values()) {
 			for (Material material : armorMaterial.items) {
-				MATERIAL_TO_ARMOR_MATERIAL.put(material, armorMaterial);
+				BY_MATERIAL_ID[material.id()] = armorMaterial;
 			}
 		}
 	}
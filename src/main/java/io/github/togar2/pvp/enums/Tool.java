@@ -1,5 +1,6 @@
 package io.github.togar2.pvp.enums;
 
+import io.github.togar2.pvp.utils.AttributeModifierUtil;
 import io.github.togar2.pvp.utils.CombatVersion;
 import io.github.togar2.pvp.utils.ModifierId;
 import net.minestom.server.entity.EquipmentSlot;
@@ -85,20 +86,16 @@ public enum Tool {
 	                                             EquipmentSlot slot, CombatVersion version) {
 		if (slot != EquipmentSlot.MAIN_HAND) return;
 		
-		Tool oldTool = fromMaterial(oldStack.material());
-		Tool newTool = fromMaterial(newStack.material());
-		
-		// Remove attributes from previous tool
-		if (oldTool != null && hasDefaultAttributes(oldStack)) {
-			entity.getAttribute(Attribute.ATTACK_DAMAGE).removeModifier(ModifierId.ATTACK_DAMAGE_MODIFIER_ID);
-			entity.getAttribute(Attribute.ATTACK_SPEED).removeModifier(ModifierId.ATTACK_SPEED_MODIFIER_ID);
-		}
-		
-		// Add attributes from new tool
-		if (newTool != null && hasDefaultAttributes(newStack)) {
-			(version.legacy() ? newTool.legacyAttributeModifiers : newTool.attributeModifiers).forEach((attribute, modifier) ->
-					entity.getAttribute(attribute).addModifier(modifier));
-		}
+		// Only the attributes whose modifier differs between the old and the new tool are updated
+		AttributeModifierUtil.replaceModifiers(entity,
+				getDefaultModifiers(oldStack, version),
+				getDefaultModifiers(newStack, version));
+	}
+	
+	private static Map<Attribute, AttributeModifier> getDefaultModifiers(ItemStack stack, CombatVersion version) {
+		Tool tool = fromMaterial(stack.material());
+		if (tool == null || !hasDefaultAttributes(stack)) return Map.of();
+		return version.legacy() ? tool.legacyAttributeModifiers : tool.attributeModifiers;
 	}
 	
 	private static boolean hasDefaultAttributes(ItemStack stack) {
@@ -116,12 +113,23 @@ public enum Tool {
 	}
 	
 	public static Tool fromMaterial(Material material) {
+		if (material == null) return null;
+		int id = material.id();
+		return id < BY_MATERIAL_ID.length ? BY_MATERIAL_ID[id] : null;
+	}
+	
+	// Indexed by material id, so that looking up the tool of the held item does not need to scan all tools
+	private static final Tool[] BY_MATERIAL_ID;
+	
+	static {
+		int size = 0;
 		for (Tool tool : values()) {
-			if (tool.material == material) {
-				return tool;
-			}
+			if (tool.material != null) size = Math.max(size, tool.material.id() + 1);
 		}
 		
-		return null;
+		BY_MATERIAL_ID = new Tool[size];
+		for (Tool tool : values()) {
+			if (tool.material != null) BY_MATERIAL_ID[tool.material.id()] = tool;
+		}
 	}
 }
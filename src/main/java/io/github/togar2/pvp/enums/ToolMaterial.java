@@ -2,9 +2,6 @@ package io.github.togar2.pvp.enums;
 
 import net.minestom.server.item.Material;
 
-import java.util.HashMap;
-import java.util.Map;
-
 public enum ToolMaterial {
 	WOOD(0, 2.0F, 0.0F, Material.WOODEN_SWORD, Material.WOODEN_SHOVEL, Material.WOODEN_PICKAXE, Material.WOODEN_AXE, Material.WOODEN_HOE),
 	STONE(1, 4.0F, 1.0F, Material.STONE_SWORD, Material.STONE_SHOVEL, Material.STONE_PICKAXE, Material.STONE_AXE, Material.STONE_HOE),
@@ -37,16 +34,27 @@ public enum ToolMaterial {
 		return this.miningLevel;
 	}
 	
-	private static final Map<Material, ToolMaterial> MATERIAL_TO_TOOL_MATERIAL = new HashMap<>();
+	// Indexed by material id
+	private static final ToolMaterial[] BY_MATERIAL_ID;
 	
 	public static ToolMaterial fromMaterial(Material material) {
-		return MATERIAL_TO_TOOL_MATERIAL.get(material);
+		if (material == null) return null;
+		int id = material.id();
+		return id < BY_MATERIAL_ID.length ? BY_MATERIAL_ID[id] : null;
 	}
 	
 	static {
+		int size = 0;
+		for (ToolMaterial toolMaterial : values()) {
+			for (Material material : toolMaterial.items) {
+				size = Math.max(size, material.id() + 1);
+			}
+		}
+		
+		BY_MATERIAL_ID = new ToolMaterial[size];
 		for (ToolMaterial toolMaterial : values()) {
 			for (Material material : toolMaterial.items) {
-				MATERIAL_TO_TOOL_MATERIAL.put(material, toolMaterial);
+				BY_MATERIAL_ID[material.id()] = toolMaterial;
 			}
 		}
 	}
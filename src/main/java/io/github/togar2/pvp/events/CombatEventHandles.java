@@ -0,0 +1,72 @@
+package io.github.togar2.pvp.events;
+
+import net.minestom.server.event.Event;
+import net.minestom.server.event.EventDispatcher;
+import net.minestom.server.event.ListenerHandle;
+import net.minestom.server.event.trait.CancellableEvent;
+
+/**
+ * Cached {@link ListenerHandle}s of the events which are called for almost every combat action.
+ * <p>
+ * Features check {@link Handle#hasListener()} before constructing one of these events,
+ * so that no event object is created when nothing listens to it, and then apply the default values directly.
+ * The handles are looked up from the global event handler the first time they are used,
+ * so listeners registered later (also in child nodes) are still taken into account.
+ */
+public final class CombatEventHandles {
+	public static final Handle<PrepareAttackEvent> PREPARE_ATTACK = new Handle<>(PrepareAttackEvent.class);
+	public static final Handle<FinalAttackEvent> FINAL_ATTACK = new Handle<>(FinalAttackEvent.class);
+	public static final Handle<EntityKnockbackEvent> KNOCKBACK = new Handle<>(EntityKnockbackEvent.class);
+	public static final Handle<FinalDamageEvent> FINAL_DAMAGE = new Handle<>(FinalDamageEvent.class);
+	public static final Handle<PlayerExhaustEvent> PLAYER_EXHAUST = new Handle<>(PlayerExhaustEvent.class);
+	public static final Handle<PlayerRegenerateEvent> PLAYER_REGENERATE = new Handle<>(PlayerRegenerateEvent.class);
+	public static final Handle<EquipmentDamageEvent> EQUIPMENT_DAMAGE = new Handle<>(EquipmentDamageEvent.class);
+	public static final Handle<PotionVisibilityEvent> POTION_VISIBILITY = new Handle<>(PotionVisibilityEvent.class);
+	
+	private CombatEventHandles() {}
+	
+	/**
+	 * A lazily looked up {@link ListenerHandle} of an event type.
+	 *
+	 * @param <E> the event type
+	 */
+	public static final class Handle<E extends Event> {
+		private final Class<E> eventType;
+		private volatile ListenerHandle<E> handle;
+		
+		private Handle(Class<E> eventType) {
+			this.eventType = eventType;
+		}
+		
+		public ListenerHandle<E> get() {
+			ListenerHandle<E> handle = this.handle;
+			// Looking the handle up twice is harmless, the event handler always returns the same handle
+			if (handle == null) this.handle = handle = EventDispatcher.getHandle(eventType);
+			return handle;
+		}
+		
+		/**
+		 * @return true if the event has at least one listener
+		 */
+		public boolean hasListener() {
+			return get().hasListener();
+		}
+		
+		public void call(E event) {
+			get().call(event);
+		}
+		
+		/**
+		 * Calls the event, and runs the callback if the event was not cancelled.
+		 *
+		 * @param event the event
+		 * @param successCallback the callback to run if the event was not cancelled
+		 */
+		public void callCancellable(E event, Runnable successCallback) {
+			get().call(event);
+			if (!(event instanceof CancellableEvent cancellable) || !cancellable.isCancelled()) {
+				successCallback.run();
+			}
+		}
+	}
+}
@@ -18,20 +18,29 @@ import org.jetbrains.annotations.NotNull;
  * once for the extra sweeping knockback, once for the default knockback.
  * <br><br>
  * You can determine which type of knockback this is by using {@link #getType()}.
+ * <br><br>
+ * The settings start out as the settings of the {@link io.github.togar2.pvp.feature.knockback.KnockbackProfile}
+ * which applies to the entity. This event is not called when there are no listeners for it.
  */
 public class EntityKnockbackEvent implements EntityInstanceEvent, CancellableEvent {
 	
 	private final Entity entity;
 	private final Entity attacker;
 	private final KnockbackType type;
-	private KnockbackSettings settings = KnockbackSettings.DEFAULT;
+	private KnockbackSettings settings;
 	
 	private boolean cancelled;
 	
 	public EntityKnockbackEvent(@NotNull Entity entity, @NotNull Entity attacker, KnockbackType type) {
+		this(entity, attacker, type, KnockbackSettings.DEFAULT);
+	}
+	
+	public EntityKnockbackEvent(@NotNull Entity entity, @NotNull Entity attacker, KnockbackType type,
+	                            @NotNull KnockbackSettings settings) {
 		this.entity = entity;
 		this.attacker = attacker;
 		this.type = type;
+		this.settings = settings;
 	}
 	
 	@NotNull
@@ -6,8 +6,20 @@ import net.minestom.server.event.trait.EntityInstanceEvent;
 
 /**
  * A container for multiple {@link CombatFeature}s. Use {@link CombatFeatureSet#createNode()} to get an event node.
+ * <p>
+ * Once the dependencies have been initialized, the set can no longer be modified.
+ * The features in it are then effectively immutable, so the set can be shared between instances running on different threads.
  */
 public class CombatFeatureSet extends FeatureConfiguration implements RegistrableFeature {
+	private volatile boolean initialized = false;
+	
+	@Override
+	public FeatureConfiguration add(FeatureType<?> type, CombatFeature feature) {
+		if (initialized)
+			throw new IllegalStateException("Cannot add features to a combat feature set after its dependencies have been initialized");
+		return super.add(type, feature);
+	}
+	
 	@Override
 	public void init(EventNode<EntityInstanceEvent> node) {
 		for (CombatFeature feature : listFeatures()) {
@@ -21,5 +33,7 @@ public class CombatFeatureSet extends FeatureConfiguration implements Registrabl
 		for (CombatFeature feature : listFeatures()) {
 			feature.initDependencies();
 		}
+		
+		initialized = true;
 	}
 }
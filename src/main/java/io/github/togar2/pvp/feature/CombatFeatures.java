@@ -1,6 +1,7 @@
 package io.github.togar2.pvp.feature;
 
 import io.github.togar2.pvp.feature.armor.VanillaArmorFeature;
+import io.github.togar2.pvp.feature.attack.LagCompensatedHitValidationFeature;
 import io.github.togar2.pvp.feature.attack.VanillaAttackFeature;
 import io.github.togar2.pvp.feature.attack.VanillaCriticalFeature;
 import io.github.togar2.pvp.feature.attack.VanillaSweepingFeature;
@@ -178,6 +179,10 @@ public class CombatFeatures {
 	 * @see FairKnockbackFeature
 	 */
 	public static final DefinedFeature<FairKnockbackFeature> FAIR_RISING_FALLING_KNOCKBACK = FairKnockbackFeature.RISING_AND_FALLING;
+	/**
+	 * @see LagCompensatedHitValidationFeature
+	 */
+	public static final DefinedFeature<LagCompensatedHitValidationFeature> LAG_COMPENSATED_HIT_VALIDATION = LagCompensatedHitValidationFeature.DEFINED;
 	
 	private static final List<DefinedFeature<?>> VANILLA = List.of(
 			VANILLA_ARMOR, VANILLA_ATTACK, VANILLA_CRITICAL, VANILLA_SWEEPING,
@@ -1,6 +1,8 @@
 package io.github.togar2.pvp.feature.armor;
 
 import io.github.togar2.pvp.damage.DamageTypeInfo;
+import io.github.togar2.pvp.entity.state.CombatState;
+import io.github.togar2.pvp.entity.state.DefenseProfile;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
@@ -8,12 +10,13 @@ import io.github.togar2.pvp.feature.enchantment.EnchantmentFeature;
 import io.github.togar2.pvp.utils.CombatVersion;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.LivingEntity;
-import net.minestom.server.entity.attribute.Attribute;
 import net.minestom.server.entity.damage.DamageType;
 import net.minestom.server.potion.PotionEffect;
 import net.minestom.server.potion.TimedPotion;
 import net.minestom.server.utils.MathUtils;
 
+import java.util.function.ToIntBiFunction;
+
 /**
  * Vanilla implementation of {@link ArmorFeature}
  */
@@ -27,6 +30,9 @@ public class VanillaArmorFeature implements ArmorFeature {
 	private EnchantmentFeature enchantmentFeature;
 	private CombatVersion version;
 	
+	// Bound once, so the defense profile of an entity can detect that its cached protection amounts belong to this feature
+	private ToIntBiFunction<LivingEntity, DamageType> protectionCalculator;
+	
 	public VanillaArmorFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
 	}
@@ -35,32 +41,39 @@ public class VanillaArmorFeature implements ArmorFeature {
 	public void initDependencies() {
 		this.enchantmentFeature = configuration.get(FeatureType.ENCHANTMENT);
 		this.version = configuration.get(FeatureType.VERSION);
+		this.protectionCalculator = enchantmentFeature::getProtectionAmount;
 	}
 	
 	@Override
 	public float getDamageWithProtection(LivingEntity entity, DamageType type, float amount) {
 		DamageTypeInfo info = DamageTypeInfo.of(MinecraftServer.getDamageTypeRegistry().getKey(type));
 		amount = getDamageWithArmor(entity, info, amount);
-		return getDamageWithEnchantments(entity, type, amount);
+		return getDamageWithEnchantments(entity, type, info, amount);
 	}
 	
 	protected float getDamageWithArmor(LivingEntity entity, DamageTypeInfo typeInfo, float amount) {
 		if (typeInfo.bypassesArmor()) return amount;
 		
-		double armorValue = entity.getAttributeValue(Attribute.ARMOR);
+		DefenseProfile defense = CombatState.of(entity).getDefenseProfile();
+		double armorValue = defense.getArmor();
 		if (version.legacy()) {
 			int armorMultiplier = 25 - (int) armorValue;
 			return (amount * (float) armorMultiplier) / 25;
 		} else {
 			return getDamageLeft(
 					amount, (float) Math.floor(armorValue),
-					(float) entity.getAttributeValue(Attribute.ARMOR_TOUGHNESS)
+					(float) defense.getArmorToughness()
 			);
 		}
 	}
 	
 	protected float getDamageWithEnchantments(LivingEntity entity, DamageType damageType, float amount) {
 		DamageTypeInfo damageTypeInfo = DamageTypeInfo.of(MinecraftServer.getDamageTypeRegistry().getKey(damageType));
+		return getDamageWithEnchantments(entity, damageType, damageTypeInfo, amount);
+	}
+	
+	protected float getDamageWithEnchantments(LivingEntity entity, DamageType damageType,
+	                                          DamageTypeInfo damageTypeInfo, float amount) {
 		if (damageTypeInfo.unblockable()) return amount;
 		
 		int k;
@@ -75,7 +88,7 @@ public class VanillaArmorFeature implements ArmorFeature {
 		if (amount <= 0) {
 			return 0;
 		} else {
-			k = enchantmentFeature.getProtectionAmount(entity, damageType);
+			k = CombatState.of(entity).getDefenseProfile().getProtectionAmount(damageType, protectionCalculator);
 			if (version.modern()) {
 				if (k > 0) {
 					amount = getDamageAfterProtectionEnchantment(amount, (float) k);
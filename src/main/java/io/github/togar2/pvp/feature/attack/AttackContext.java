@@ -0,0 +1,234 @@
+package io.github.togar2.pvp.feature.attack;
+
+/**
+ * Mutable staging object for the values of an attack while it is being prepared and performed.
+ * <p>
+ * Contexts are pooled per thread, so an attack does not allocate a new object for every stage.
+ * A context must be released after the attack and must not be kept afterwards.
+ * Nested attacks (for example an attack performed from an event listener) get their own context.
+ * <p>
+ * The {@link AttackValues} records can still be obtained from a context for implementations using the record based methods.
+ */
+public final class AttackContext {
+	private static final ThreadLocal<Pool> POOL = ThreadLocal.withInitial(Pool::new);
+	
+	private final Pool pool;
+	
+	private float damage;
+	private float magicalDamage;
+	private double cooldownProgress;
+	private boolean strong;
+	private boolean sprint;
+	private boolean critical;
+	private boolean sweeping;
+	private int knockback;
+	private int fireAspect;
+	private boolean sounds;
+	private boolean playSoundsOnFail;
+	
+	private AttackContext(Pool pool) {
+		this.pool = pool;
+	}
+	
+	/**
+	 * Acquires a cleared context from the pool of the current thread.
+	 * The context must be released using {@link #release()} when the attack is done.
+	 *
+	 * @return the context
+	 */
+	public static AttackContext acquire() {
+		return POOL.get().acquire();
+	}
+	
+	/**
+	 * Returns this context to the pool of the thread it was acquired on.
+	 */
+	public void release() {
+		pool.release(this);
+	}
+	
+	private void clear() {
+		damage = 0;
+		magicalDamage = 0;
+		cooldownProgress = 1;
+		strong = false;
+		sprint = false;
+		critical = false;
+		sweeping = false;
+		knockback = 0;
+		fireAspect = 0;
+		sounds = false;
+		playSoundsOnFail = false;
+	}
+	
+	public float getDamage() {
+		return damage;
+	}
+	
+	public void setDamage(float damage) {
+		this.damage = damage;
+	}
+	
+	public float getMagicalDamage() {
+		return magicalDamage;
+	}
+	
+	public void setMagicalDamage(float magicalDamage) {
+		this.magicalDamage = magicalDamage;
+	}
+	
+	public double getCooldownProgress() {
+		return cooldownProgress;
+	}
+	
+	public void setCooldownProgress(double cooldownProgress) {
+		this.cooldownProgress = cooldownProgress;
+	}
+	
+	public boolean isStrong() {
+		return strong;
+	}
+	
+	public void setStrong(boolean strong) {
+		this.strong = strong;
+	}
+	
+	public boolean isSprint() {
+		return sprint;
+	}
+	
+	public void setSprint(boolean sprint) {
+		this.sprint = sprint;
+	}
+	
+	public boolean isCritical() {
+		return critical;
+	}
+	
+	public void setCritical(boolean critical) {
+		this.critical = critical;
+	}
+	
+	public boolean isSweeping() {
+		return sweeping;
+	}
+	
+	public void setSweeping(boolean sweeping) {
+		this.sweeping = sweeping;
+	}
+	
+	public int getKnockback() {
+		return knockback;
+	}
+	
+	public void setKnockback(int knockback) {
+		this.knockback = knockback;
+	}
+	
+	public int getFireAspect() {
+		return fireAspect;
+	}
+	
+	public void setFireAspect(int fireAspect) {
+		this.fireAspect = fireAspect;
+	}
+	
+	public boolean isMagical() {
+		return magicalDamage > 0;
+	}
+	
+	public boolean hasSounds() {
+		return sounds;
+	}
+	
+	public void setSounds(boolean sounds) {
+		this.sounds = sounds;
+	}
+	
+	public boolean playSoundsOnFail() {
+		return playSoundsOnFail;
+	}
+	
+	public void setPlaySoundsOnFail(boolean playSoundsOnFail) {
+		this.playSoundsOnFail = playSoundsOnFail;
+	}
+	
+	/**
+	 * Loads the values of a record into this context, for implementations which still prepare attacks as records.
+	 * The record only tells whether the attack was magical, so the magical damage is set to a positive placeholder
+	 * (the magical damage is already included in the damage of the record).
+	 *
+	 * @param attack the values of the attack
+	 */
+	public void load(AttackValues.Final attack) {
+		damage = attack.damage();
+		magicalDamage = attack.magical() ? Float.MIN_VALUE : 0;
+		strong = attack.strong();
+		sprint = attack.sprint();
+		knockback = attack.knockback();
+		critical = attack.critical();
+		fireAspect = attack.fireAspect();
+		sweeping = attack.sweeping();
+		sounds = attack.sounds();
+		playSoundsOnFail = attack.playSoundsOnFail();
+	}
+	
+	public AttackValues.PreCritical toPreCritical() {
+		return new AttackValues.PreCritical(
+				damage, magicalDamage, cooldownProgress,
+				strong, sprint, knockback, fireAspect
+		);
+	}
+	
+	public AttackValues.PreSweeping toPreSweeping() {
+		return new AttackValues.PreSweeping(
+				damage, magicalDamage, cooldownProgress,
+				strong, sprint, critical, knockback, fireAspect
+		);
+	}
+	
+	public AttackValues.PreSounds toPreSounds() {
+		return new AttackValues.PreSounds(
+				damage, magicalDamage, cooldownProgress,
+				strong, sprint, critical, sweeping,
+				knockback, fireAspect
+		);
+	}
+	
+	public AttackValues.Final toFinal() {
+		return new AttackValues.Final(
+				damage, strong, sprint, knockback, critical,
+				isMagical(), fireAspect, sweeping,
+				sounds, playSoundsOnFail
+		);
+	}
+	
+	private static final class Pool {
+		private AttackContext[] contexts = new AttackContext[4];
+		private int depth;
+		
+		private AttackContext acquire() {
+			if (depth == contexts.length) {
+				AttackContext[] grown = new AttackContext[contexts.length * 2];
+				System.arraycopy(contexts, 0, grown, 0, contexts.length);
+				contexts = grown;
+			}
+			
+			AttackContext context = contexts[depth];
+			if (context == null) {
+				context = new AttackContext(this);
+				contexts[depth] = context;
+			}
+			depth++;
+			
+			context.clear();
+			return context;
+		}
+		
+		private void release(AttackContext context) {
+			if (depth == 0 || contexts[depth - 1] != context)
+				throw new IllegalStateException("Attack contexts must be released in reverse order of acquisition");
+			depth--;
+		}
+	}
+}
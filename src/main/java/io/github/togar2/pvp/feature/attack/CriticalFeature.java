@@ -21,6 +21,18 @@ public interface CriticalFeature extends CombatFeature {
 	
 	boolean shouldCrit(LivingEntity attacker, AttackValues.PreCritical values);
 	
+	/**
+	 * Determines whether the attack staged in the given context is critical.
+	 * Implementations should override this to avoid creating the {@link AttackValues.PreCritical} record.
+	 *
+	 * @param attacker the attacker
+	 * @param context the attack context
+	 * @return whether the attack is critical
+	 */
+	default boolean shouldCrit(LivingEntity attacker, AttackContext context) {
+		return shouldCrit(attacker, context.toPreCritical());
+	}
+	
 	/**
 	 * Determines the new damage amount when the attack was critical.
 	 *
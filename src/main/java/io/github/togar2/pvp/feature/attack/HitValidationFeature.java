@@ -0,0 +1,27 @@
+package io.github.togar2.pvp.feature.attack;
+
+import io.github.togar2.pvp.feature.CombatFeature;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.Player;
+
+/**
+ * Combat feature used to validate whether a player could actually have hit the entity they attacked.
+ * This is checked on top of the range check of the attack feature.
+ */
+public interface HitValidationFeature extends CombatFeature {
+	HitValidationFeature NO_OP = new HitValidationFeature() {
+		@Override
+		public boolean isValidHit(Player attacker, Entity target) {
+			return true;
+		}
+	};
+	
+	/**
+	 * Determines whether the attack of the player on the target is legitimate.
+	 *
+	 * @param attacker the attacking player
+	 * @param target the attacked entity
+	 * @return true if the attack should be processed
+	 */
+	boolean isValidHit(Player attacker, Entity target);
+}
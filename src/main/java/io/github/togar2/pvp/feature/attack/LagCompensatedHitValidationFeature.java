@@ -0,0 +1,161 @@
+package io.github.togar2.pvp.feature.attack;
+
+import io.github.togar2.pvp.entity.state.CombatState;
+import io.github.togar2.pvp.entity.state.MovementHistory;
+import io.github.togar2.pvp.feature.FeatureType;
+import io.github.togar2.pvp.feature.RegistrableFeature;
+import io.github.togar2.pvp.feature.config.DefinedFeature;
+import io.github.togar2.pvp.player.CombatPlayerImpl;
+import io.github.togar2.pvp.utils.AccurateLatencyListener;
+import net.minestom.server.ServerFlag;
+import net.minestom.server.collision.BoundingBox;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.Player;
+import net.minestom.server.entity.attribute.Attribute;
+import net.minestom.server.event.EventNode;
+import net.minestom.server.event.player.PlayerTickEvent;
+import net.minestom.server.event.trait.EntityInstanceEvent;
+
+/**
+ * Implementation of {@link HitValidationFeature} which checks whether the look direction of the attacker
+ * actually intersects the hitbox of the target, within the interaction range of the attacker.
+ * <p>
+ * Since the attacker sees the target where it was some time ago, the check is done against the recent positions of the target,
+ * going back as far as the latency of the attacker (see {@link AccurateLatencyListener}) plus a few extra ticks.
+ * Positions are only recorded for players, for other entities only their current position is checked.
+ * {@link CombatPlayerImpl} records its own movement history, for other players the position is recorded every tick.
+ * <p>
+ * The check is a ray versus box test for every recorded position, so it is cheap enough to run for every attack.
+ */
+public class LagCompensatedHitValidationFeature implements HitValidationFeature, RegistrableFeature {
+	public static final DefinedFeature<LagCompensatedHitValidationFeature> DEFINED = new DefinedFeature<>(
+			FeatureType.HIT_VALIDATION, configuration -> new LagCompensatedHitValidationFeature(0.3, 0.1, 2)
+	);
+	
+	/**
+	 * Creates a definition of this feature with custom tolerances.
+	 *
+	 * @param reachTolerance the distance which is allowed on top of the interaction range of the attacker
+	 * @param hitboxTolerance the distance by which the hitbox of the target is expanded in every direction
+	 * @param extraTicks the amount of ticks which are checked on top of the latency of the attacker
+	 * @return the defined feature
+	 */
+	public static DefinedFeature<LagCompensatedHitValidationFeature> withTolerance(double reachTolerance,
+	                                                                                 double hitboxTolerance, int extraTicks) {
+		return new DefinedFeature<>(
+				FeatureType.HIT_VALIDATION,
+				configuration -> new LagCompensatedHitValidationFeature(reachTolerance, hitboxTolerance, extraTicks)
+		);
+	}
+	
+	private static final double EPSILON = 1.0E-7;
+	
+	protected final double reachTolerance;
+	protected final double hitboxTolerance;
+	protected final int extraTicks;
+	
+	public LagCompensatedHitValidationFeature(double reachTolerance, double hitboxTolerance, int extraTicks) {
+		this.reachTolerance = reachTolerance;
+		this.hitboxTolerance = hitboxTolerance;
+		this.extraTicks = extraTicks;
+	}
+	
+	@Override
+	public void init(EventNode<EntityInstanceEvent> node) {
+		node.addListener(PlayerTickEvent.class, event -> {
+			Player player = event.getPlayer();
+			if (player instanceof CombatPlayerImpl) return; // Records its own movement
+			
+			Pos position = player.getPosition();
+			CombatState.of(player).getMovementHistory()
+					.record(player.getAliveTicks(), position.x(), position.y(), position.z());
+		});
+	}
+	
+	@Override
+	public boolean isValidHit(Player attacker, Entity target) {
+		Pos position = attacker.getPosition();
+		double originX = position.x();
+		double originY = position.y() + attacker.getEyeHeight();
+		double originZ = position.z();
+		
+		double yaw = Math.toRadians(position.yaw());
+		double pitch = Math.toRadians(position.pitch());
+		double cosPitch = Math.cos(pitch);
+		double dirX = -Math.sin(yaw) * cosPitch;
+		double dirY = -Math.sin(pitch);
+		double dirZ = Math.cos(yaw) * cosPitch;
+		
+		double reach = attacker.getAttributeValue(Attribute.ENTITY_INTERACTION_RANGE) + reachTolerance;
+		BoundingBox boundingBox = target.getBoundingBox();
+		
+		Pos targetPosition = target.getPosition();
+		if (intersects(originX, originY, originZ, dirX, dirY, dirZ, reach, boundingBox,
+				targetPosition.x(), targetPosition.y(), targetPosition.z()))
+			return true;
+		
+		if (!(target instanceof Player targetPlayer)) return false;
+		
+		MovementHistory history = CombatState.of(targetPlayer).getMovementHistory();
+		long oldestTick = targetPlayer.getAliveTicks() - getLatencyTicks(attacker.getLatency()) - extraTicks;
+		for (int age = 0; age < history.size(); age++) {
+			if (history.getTick(age) < oldestTick) break;
+			
+			if (intersects(originX, originY, originZ, dirX, dirY, dirZ, reach, boundingBox,
+					history.getX(age), history.getY(age), history.getZ(age)))
+				return true;
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Tests whether the ray intersects the bounding box at the given position (expanded by the hitbox tolerance)
+	 * within the given distance, using the slab method.
+	 */
+	protected boolean intersects(double originX, double originY, double originZ,
+	                             double dirX, double dirY, double dirZ, double distance,
+	                             BoundingBox boundingBox, double x, double y, double z) {
+		double minX = x + boundingBox.minX() - hitboxTolerance, maxX = x + boundingBox.maxX() + hitboxTolerance;
+		double minY = y + boundingBox.minY() - hitboxTolerance, maxY = y + boundingBox.maxY() + hitboxTolerance;
+		double minZ = z + boundingBox.minZ() - hitboxTolerance, maxZ = z + boundingBox.maxZ() + hitboxTolerance;
+		
+		double tMin = 0;
+		double tMax = distance;
+		
+		if (Math.abs(dirX) < EPSILON) {
+			if (originX < minX || originX > maxX) return false;
+		} else {
+			double t1 = (minX - originX) / dirX;
+			double t2 = (maxX - originX) / dirX;
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+			if (tMin > tMax) return false;
+		}
+		
+		if (Math.abs(dirY) < EPSILON) {
+			if (originY < minY || originY > maxY) return false;
+		} else {
+			double t1 = (minY - originY) / dirY;
+			double t2 = (maxY - originY) / dirY;
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+			if (tMin > tMax) return false;
+		}
+		
+		if (Math.abs(dirZ) < EPSILON) {
+			return originZ >= minZ && originZ <= maxZ;
+		} else {
+			double t1 = (minZ - originZ) / dirZ;
+			double t2 = (maxZ - originZ) / dirZ;
+			tMin = Math.max(tMin, Math.min(t1, t2));
+			tMax = Math.min(tMax, Math.max(t1, t2));
+			return tMin <= tMax;
+		}
+	}
+	
+	private static int getLatencyTicks(int latencyMillis) {
+		return Math.ceilDiv(latencyMillis * ServerFlag.SERVER_TICKS_PER_SECOND, 1000);
+	}
+}
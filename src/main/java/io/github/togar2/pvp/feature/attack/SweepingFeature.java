@@ -29,6 +29,18 @@ public interface SweepingFeature extends CombatFeature {
 	
 	boolean shouldSweep(LivingEntity attacker, AttackValues.PreSweeping values);
 	
+	/**
+	 * Determines whether the attack staged in the given context is a sweeping attack.
+	 * Implementations should override this to avoid creating the {@link AttackValues.PreSweeping} record.
+	 *
+	 * @param attacker the attacker
+	 * @param context the attack context
+	 * @return whether the attack is a sweeping attack
+	 */
+	default boolean shouldSweep(LivingEntity attacker, AttackContext context) {
+		return shouldSweep(attacker, context.toPreSweeping());
+	}
+	
 	float getSweepingDamage(LivingEntity attacker, float damage);
 	
 	/**
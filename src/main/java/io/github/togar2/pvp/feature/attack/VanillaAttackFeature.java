@@ -2,6 +2,7 @@ package io.github.togar2.pvp.feature.attack;
 
 import io.github.togar2.pvp.enchantment.EntityGroup;
 import io.github.togar2.pvp.enums.Tool;
+import io.github.togar2.pvp.events.CombatEventHandles;
 import io.github.togar2.pvp.events.FinalAttackEvent;
 import io.github.togar2.pvp.events.PrepareAttackEvent;
 import io.github.togar2.pvp.feature.FeatureType;
@@ -14,9 +15,9 @@ import io.github.togar2.pvp.feature.food.ExhaustionFeature;
 import io.github.togar2.pvp.feature.item.ItemDamageFeature;
 import io.github.togar2.pvp.feature.knockback.KnockbackFeature;
 import io.github.togar2.pvp.player.CombatPlayer;
+import io.github.togar2.pvp.utils.CombatFeedback;
 import io.github.togar2.pvp.utils.CombatVersion;
-import io.github.togar2.pvp.utils.ViewUtil;
-import net.kyori.adventure.audience.Audience;
+import io.github.togar2.pvp.utils.OverrideUtil;
 import net.kyori.adventure.sound.Sound;
 import net.minestom.server.ServerFlag;
 import net.minestom.server.coordinate.Pos;
@@ -24,7 +25,6 @@ import net.minestom.server.entity.*;
 import net.minestom.server.entity.attribute.Attribute;
 import net.minestom.server.entity.damage.Damage;
 import net.minestom.server.entity.damage.DamageType;
-import net.minestom.server.event.EventDispatcher;
 import net.minestom.server.event.EventNode;
 import net.minestom.server.event.entity.EntityAttackEvent;
 import net.minestom.server.event.trait.EntityInstanceEvent;
@@ -46,11 +46,19 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 	public static final DefinedFeature<VanillaAttackFeature> DEFINED = new DefinedFeature<>(
 		FeatureType.ATTACK, VanillaAttackFeature::new,
 		FeatureType.ATTACK_COOLDOWN, FeatureType.EXHAUSTION, FeatureType.ITEM_DAMAGE,
-		FeatureType.ENCHANTMENT, FeatureType.CRITICAL, FeatureType.SWEEPING, FeatureType.KNOCKBACK, FeatureType.VERSION
+		FeatureType.ENCHANTMENT, FeatureType.CRITICAL, FeatureType.SWEEPING, FeatureType.KNOCKBACK, FeatureType.HIT_VALIDATION,
+		FeatureType.VERSION
 	);
 
 	private static final double ATTACK_RANGE_MARGIN = 3.0;
 
+	private static final Sound KNOCKBACK_SOUND = Sound.sound(SoundEvent.ENTITY_PLAYER_ATTACK_KNOCKBACK, Sound.Source.PLAYER, 1.0f, 1.0f);
+	private static final Sound SWEEP_SOUND = Sound.sound(SoundEvent.ENTITY_PLAYER_ATTACK_SWEEP, Sound.Source.PLAYER, 1.0f, 1.0f);
+	private static final Sound CRIT_SOUND = Sound.sound(SoundEvent.ENTITY_PLAYER_ATTACK_CRIT, Sound.Source.PLAYER, 1.0f, 1.0f);
+	private static final Sound STRONG_SOUND = Sound.sound(SoundEvent.ENTITY_PLAYER_ATTACK_STRONG, Sound.Source.PLAYER, 1.0f, 1.0f);
+	private static final Sound WEAK_SOUND = Sound.sound(SoundEvent.ENTITY_PLAYER_ATTACK_WEAK, Sound.Source.PLAYER, 1.0f, 1.0f);
+	private static final Sound NO_DAMAGE_SOUND = Sound.sound(SoundEvent.ENTITY_PLAYER_ATTACK_NODAMAGE, Sound.Source.PLAYER, 1.0f, 1.0f);
+
 	private final FeatureConfiguration configuration;
 
 	private AttackCooldownFeature cooldownFeature;
@@ -61,9 +69,14 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 	private CriticalFeature criticalFeature;
 	private SweepingFeature sweepingFeature;
 	private KnockbackFeature knockbackFeature;
+	private HitValidationFeature hitValidationFeature;
 
 	private CombatVersion version;
 
+	// Subclasses which still override the record based prepareAttack keep being called
+	private final boolean recordPrepareAttack = OverrideUtil.isOverridden(getClass(), VanillaAttackFeature.class,
+		"prepareAttack", LivingEntity.class, Entity.class);
+
 	public VanillaAttackFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
 	}
@@ -77,6 +90,7 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 		this.criticalFeature = configuration.get(FeatureType.CRITICAL);
 		this.sweepingFeature = configuration.get(FeatureType.SWEEPING);
 		this.knockbackFeature = configuration.get(FeatureType.KNOCKBACK);
+		this.hitValidationFeature = configuration.get(FeatureType.HIT_VALIDATION);
 		this.version = configuration.get(FeatureType.VERSION);
 	}
 
@@ -86,7 +100,8 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 			if (event.getEntity() instanceof Player player && player.getGameMode() != GameMode.SPECTATOR && !player.isDead()) {
 				Entity target = event.getTarget();
 				double maxDistanceSquared = Math.pow(player.getAttributeValue(Attribute.ENTITY_INTERACTION_RANGE) + ATTACK_RANGE_MARGIN, 2);
-				if (player.getPosition().distanceSquared(target.getPosition().add(0, target.getEyeHeight(), 0)) < maxDistanceSquared)
+				if (player.getPosition().distanceSquared(target.getPosition().add(0, target.getEyeHeight(), 0)) < maxDistanceSquared
+						&& hitValidationFeature.isValidHit(player, target))
 					performAttack(player, target);
 			}
 		});
@@ -94,12 +109,31 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 
 	@Override
 	public boolean performAttack(LivingEntity attacker, Entity target) {
-		PrepareAttackEvent prepareAttackEvent = new PrepareAttackEvent(attacker, target);
-		EventDispatcher.call(prepareAttackEvent);
-		if (prepareAttackEvent.isCancelled()) return false;
-		AttackValues.Final attack = prepareAttack(attacker, target);
-		if (attack == null) return false; // Event cancelled
+		if (CombatEventHandles.PREPARE_ATTACK.hasListener()) {
+			PrepareAttackEvent prepareAttackEvent = new PrepareAttackEvent(attacker, target);
+			CombatEventHandles.PREPARE_ATTACK.call(prepareAttackEvent);
+			if (prepareAttackEvent.isCancelled()) return false;
+		}
+
+		AttackContext attack = AttackContext.acquire();
+		CombatFeedback feedback = CombatFeedback.begin();
+		try {
+			if (recordPrepareAttack) {
+				AttackValues.Final values = prepareAttack(attacker, target);
+				if (values == null) return false; // Event cancelled
+				attack.load(values);
+			} else if (!prepareAttack(attacker, target, attack)) {
+				return false; // Event cancelled
+			}
+			return performAttack(attacker, target, attack);
+		} finally {
+			// Sends all sounds, animations and particles of this attack (including sweeping) as one bundle
+			feedback.end();
+			attack.release();
+		}
+	}
 
+	protected boolean performAttack(LivingEntity attacker, Entity target, AttackContext attack) {
 		float originalHealth = 0;
 		boolean damageSucceeded = false;
 		if (target instanceof LivingEntity livingTarget) {
@@ -107,17 +141,14 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 			damageSucceeded = livingTarget.damage(new Damage(
 				attacker instanceof Player ? DamageType.PLAYER_ATTACK : DamageType.MOB_ATTACK,
 				attacker, attacker,
-				null, attack.damage()
+				null, attack.getDamage()
 			));
 		}
 
 		if (!damageSucceeded) {
 			// No damage sound
-			if (attack.sounds() && attack.playSoundsOnFail()) {
-				ViewUtil.viewersAndSelf(attacker).playSound(Sound.sound(
-					SoundEvent.ENTITY_PLAYER_ATTACK_NODAMAGE, Sound.Source.PLAYER,
-					1.0f, 1.0f
-				), attacker);
+			if (attack.hasSounds() && attack.playSoundsOnFail()) {
+				CombatFeedback.playSound(attacker, NO_DAMAGE_SOUND);
 			}
 			return false;
 		}
@@ -127,9 +158,9 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 		Collection<LivingEntity> affectedEntities = List.of(living);
 
 		// Knockback and sweeping
-		knockbackFeature.applyAttackKnockback(attacker, living, attack.knockback());
-		if (attack.sweeping()) {
-			affectedEntities = sweepingFeature.applySweeping(attacker, living, attack.damage());
+		knockbackFeature.applyAttackKnockback(attacker, living, attack.getKnockback());
+		if (attack.isSweeping()) {
+			affectedEntities = sweepingFeature.applySweeping(attacker, living, attack.getDamage());
 			affectedEntities.add(living);
 		}
 
@@ -137,54 +168,31 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 			custom.sendImmediateVelocityUpdate();
 
 		// Play attack sounds
-		if (attack.sounds()) {
-			Audience audience = attacker.getViewersAsAudience();
-			if (attacker instanceof Player player)
-				audience = Audience.audience(audience, player);
-
-			if (attack.sprint()) audience.playSound(Sound.sound(
-				SoundEvent.ENTITY_PLAYER_ATTACK_KNOCKBACK, Sound.Source.PLAYER,
-				1.0f, 1.0f
-			), attacker);
-
-			if (attack.sweeping()) audience.playSound(Sound.sound(
-				SoundEvent.ENTITY_PLAYER_ATTACK_SWEEP, Sound.Source.PLAYER,
-				1.0f, 1.0f
-			), attacker);
-
-			if (attack.critical()) audience.playSound(Sound.sound(
-				SoundEvent.ENTITY_PLAYER_ATTACK_CRIT, Sound.Source.PLAYER,
-				1.0f, 1.0f
-			), attacker);
-
-			if (!attack.critical() && !attack.sweeping()) audience.playSound(Sound.sound(
-				attack.strong() ?
-					SoundEvent.ENTITY_PLAYER_ATTACK_STRONG :
-					SoundEvent.ENTITY_PLAYER_ATTACK_WEAK,
-				Sound.Source.PLAYER, 1.0f, 1.0f
-			), attacker);
+		if (attack.hasSounds()) {
+			if (attack.isSprint()) CombatFeedback.playSound(attacker, KNOCKBACK_SOUND);
+			if (attack.isSweeping()) CombatFeedback.playSound(attacker, SWEEP_SOUND);
+			if (attack.isCritical()) CombatFeedback.playSound(attacker, CRIT_SOUND);
+			if (!attack.isCritical() && !attack.isSweeping())
+				CombatFeedback.playSound(attacker, attack.isStrong() ? STRONG_SOUND : WEAK_SOUND);
 		}
 
 		// Play attack effects
-		if (attack.critical()) attacker.sendPacketToViewersAndSelf(new EntityAnimationPacket(
+		if (attack.isCritical()) CombatFeedback.sendToViewersAndSelf(attacker, new EntityAnimationPacket(
 			target.getEntityId(),
 			EntityAnimationPacket.Animation.CRITICAL_EFFECT
 		));
-		if (attack.magical()) attacker.sendPacketToViewersAndSelf(new EntityAnimationPacket(
+		if (attack.isMagical()) CombatFeedback.sendToViewersAndSelf(attacker, new EntityAnimationPacket(
 			target.getEntityId(),
 			EntityAnimationPacket.Animation.MAGICAL_CRITICAL_EFFECT
 		));
 
+		int fireTicks = attack.getFireAspect() * 4 * ServerFlag.SERVER_TICKS_PER_SECOND;
 		for (LivingEntity affectedEntity : affectedEntities) {
 			// Thorns
 			enchantmentFeature.onUserDamaged(affectedEntity, attacker);
 			enchantmentFeature.onTargetDamaged(attacker, affectedEntity);
 
-			if (attack.fireAspect() > 0) {
-				for (LivingEntity entity : affectedEntities) {
-					entity.setFireTicks(attack.fireAspect() * 4 * ServerFlag.SERVER_TICKS_PER_SECOND);
-				}
-			}
+			if (fireTicks > 0) affectedEntity.setFireTicks(fireTicks);
 		}
 
 		// Damage item
@@ -197,7 +205,7 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 		if (damageDone > 2) {
 			int particleCount = (int) (damageDone * 0.5);
 			Pos targetPosition = target.getPosition();
-			target.sendPacketToViewersAndSelf(new ParticlePacket(
+			CombatFeedback.sendToViewersAndSelf(target, new ParticlePacket(
 				Particle.DAMAGE_INDICATOR, false, false,
 				targetPosition.x(), targetPosition.y() + target.getBoundingBox().height() * 0.5, targetPosition.z(),
 				0.1f, 0, 0.1f,
@@ -211,7 +219,26 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 		return true;
 	}
 
+	/**
+	 * @deprecated use {@link #prepareAttack(LivingEntity, Entity, AttackContext)}, which does not create intermediate records.
+	 * This method is still called instead of the context based method if a subclass overrides it.
+	 */
+	@Deprecated
 	protected @Nullable AttackValues.Final prepareAttack(LivingEntity attacker, Entity target) {
+		AttackContext context = AttackContext.acquire();
+		try {
+			return prepareAttack(attacker, target, context) ? context.toFinal() : null;
+		} finally {
+			context.release();
+		}
+	}
+
+	/**
+	 * Stages the values of an attack in the given context.
+	 *
+	 * @return false if the attack was cancelled
+	 */
+	protected boolean prepareAttack(LivingEntity attacker, Entity target, AttackContext context) {
 		float damage = (float) attacker.getAttributeValue(Attribute.ATTACK_DAMAGE);
 		float magicalDamage = enchantmentFeature.getAttackDamage(
 			attacker.getItemInMainHand(),
@@ -234,32 +261,42 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 		int knockback = enchantmentFeature.getKnockback(attacker);
 		int fireAspect = enchantmentFeature.getFireAspect(attacker);
 
+		context.setDamage(damage);
+		context.setMagicalDamage(magicalDamage);
+		context.setCooldownProgress(cooldownProgress);
+		context.setStrong(strongAttack);
+		context.setSprint(sprintAttack);
+		context.setKnockback(knockback);
+		context.setFireAspect(fireAspect);
+
 		// Use features to determine critical and sweeping
-		AttackValues.PreCritical preCritical = new AttackValues.PreCritical(
-			damage, magicalDamage, cooldownProgress,
-			strongAttack, sprintAttack, knockback, fireAspect
-		);
-		AttackValues.PreSweeping preSweeping = preCritical.withCritical(criticalFeature.shouldCrit(attacker, preCritical));
-		AttackValues.PreSounds preSounds = preSweeping.withSweeping(sweepingFeature.shouldSweep(attacker, preSweeping));
+		context.setCritical(criticalFeature.shouldCrit(attacker, context));
+		context.setSweeping(sweepingFeature.shouldSweep(attacker, context));
 
-		boolean critical = preSounds.critical();
-		boolean sweeping = preSounds.sweeping();
+		boolean critical = context.isCritical();
+		boolean sweeping = context.isSweeping();
 
 		boolean sounds = version.modern();
-
-		// Call event which can modify attack values
-		FinalAttackEvent finalAttackEvent = new FinalAttackEvent(
-			attacker, target, sprintAttack, critical, sweeping, damage,
-			magicalDamage, sounds, sounds
-		);
-		EventDispatcher.call(finalAttackEvent);
-		if (finalAttackEvent.isCancelled()) return null;
-
-		sprintAttack = finalAttackEvent.isSprint();
-		critical = finalAttackEvent.isCritical();
-		sweeping = finalAttackEvent.isSweeping();
-		damage = finalAttackEvent.getBaseDamage();
-		magicalDamage = finalAttackEvent.getEnchantsExtraDamage();
+		boolean attackSounds = sounds;
+		boolean playSoundsOnFail = sounds;
+
+		// Call event which can modify attack values, only constructed if something listens to it
+		if (CombatEventHandles.FINAL_ATTACK.hasListener()) {
+			FinalAttackEvent finalAttackEvent = new FinalAttackEvent(
+				attacker, target, sprintAttack, critical, sweeping, damage,
+				magicalDamage, sounds, sounds
+			);
+			CombatEventHandles.FINAL_ATTACK.call(finalAttackEvent);
+			if (finalAttackEvent.isCancelled()) return false;
+
+			sprintAttack = finalAttackEvent.isSprint();
+			critical = finalAttackEvent.isCritical();
+			sweeping = finalAttackEvent.isSweeping();
+			damage = finalAttackEvent.getBaseDamage();
+			magicalDamage = finalAttackEvent.getEnchantsExtraDamage();
+			attackSounds = finalAttackEvent.hasAttackSounds();
+			playSoundsOnFail = finalAttackEvent.playSoundsOnFail();
+		}
 
 		// Apply critical damage and knockback
 		if (critical) damage = criticalFeature.applyToDamage(damage);
@@ -267,11 +304,14 @@ public class VanillaAttackFeature implements AttackFeature, RegistrableFeature {
 
 		if (sprintAttack) knockback++;
 
-		return new AttackValues.Final(
-			damage, strongAttack, sprintAttack, knockback, critical,
-			magicalDamage > 0, fireAspect, sweeping,
-			finalAttackEvent.hasAttackSounds(),
-			finalAttackEvent.playSoundsOnFail()
-		);
+		context.setDamage(damage);
+		context.setMagicalDamage(magicalDamage);
+		context.setSprint(sprintAttack);
+		context.setCritical(critical);
+		context.setSweeping(sweeping);
+		context.setKnockback(knockback);
+		context.setSounds(attackSounds);
+		context.setPlaySoundsOnFail(playSoundsOnFail);
+		return true;
 	}
 }
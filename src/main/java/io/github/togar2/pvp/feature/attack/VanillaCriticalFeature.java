@@ -5,6 +5,7 @@ import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.state.PlayerStateFeature;
 import io.github.togar2.pvp.utils.CombatVersion;
+import io.github.togar2.pvp.utils.OverrideUtil;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.potion.PotionEffect;
 
@@ -24,6 +25,10 @@ public class VanillaCriticalFeature implements CriticalFeature {
 	private PlayerStateFeature playerStateFeature;
 	private CombatVersion version;
 	
+	// Subclasses which only override the record based shouldCrit keep being called
+	private final boolean recordShouldCrit = OverrideUtil.isOverridden(getClass(), VanillaCriticalFeature.class,
+			"shouldCrit", LivingEntity.class, AttackValues.PreCritical.class);
+	
 	public VanillaCriticalFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
 	}
@@ -36,7 +41,17 @@ public class VanillaCriticalFeature implements CriticalFeature {
 	
 	@Override
 	public boolean shouldCrit(LivingEntity attacker, AttackValues.PreCritical values) {
-		boolean critical = values.strong() && !playerStateFeature.isClimbing(attacker)
+		return shouldCrit(attacker, values.strong());
+	}
+	
+	@Override
+	public boolean shouldCrit(LivingEntity attacker, AttackContext context) {
+		if (recordShouldCrit) return shouldCrit(attacker, context.toPreCritical());
+		return shouldCrit(attacker, context.isStrong());
+	}
+	
+	protected boolean shouldCrit(LivingEntity attacker, boolean strong) {
+		boolean critical = strong && !playerStateFeature.isClimbing(attacker)
 				&& attacker.getVelocity().y() < 0 && !attacker.isOnGround()
 				&& !attacker.hasEffect(PotionEffect.BLINDNESS)
 				&& attacker.getVehicle() == null;
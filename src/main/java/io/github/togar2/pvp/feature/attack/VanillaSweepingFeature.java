@@ -7,19 +7,23 @@ import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.feature.enchantment.EnchantmentFeature;
 import io.github.togar2.pvp.feature.knockback.KnockbackFeature;
+import io.github.togar2.pvp.utils.AreaDamage;
+import io.github.togar2.pvp.utils.CombatFeedback;
+import io.github.togar2.pvp.utils.OverrideUtil;
 import net.minestom.server.collision.BoundingBox;
 import net.minestom.server.coordinate.Pos;
-import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.EntityType;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.attribute.Attribute;
 import net.minestom.server.entity.damage.Damage;
 import net.minestom.server.entity.damage.DamageType;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.item.ItemStack;
 import net.minestom.server.network.packet.server.play.ParticlePacket;
 import net.minestom.server.particle.Particle;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
@@ -32,11 +36,17 @@ public class VanillaSweepingFeature implements SweepingFeature {
 			FeatureType.ENCHANTMENT, FeatureType.KNOCKBACK
 	);
 	
+	private static final EntityGroup[] ENTITY_GROUPS = EntityGroup.values();
+	
 	private final FeatureConfiguration configuration;
 	
 	private EnchantmentFeature enchantmentFeature;
 	private KnockbackFeature knockbackFeature;
 	
+	// Subclasses which only override the record based shouldSweep keep being called
+	private final boolean recordShouldSweep = OverrideUtil.isOverridden(getClass(), VanillaSweepingFeature.class,
+			"shouldSweep", LivingEntity.class, AttackValues.PreSweeping.class);
+	
 	public VanillaSweepingFeature(FeatureConfiguration configuration) {
 		this.configuration = configuration;
 	}
@@ -49,7 +59,17 @@ public class VanillaSweepingFeature implements SweepingFeature {
 	
 	@Override
 	public boolean shouldSweep(LivingEntity attacker, AttackValues.PreSweeping values) {
-		if (!values.strong() || values.critical() || values.sprint() || !attacker.isOnGround()) return false;
+		return shouldSweep(attacker, values.strong(), values.critical(), values.sprint());
+	}
+	
+	@Override
+	public boolean shouldSweep(LivingEntity attacker, AttackContext context) {
+		if (recordShouldSweep) return shouldSweep(attacker, context.toPreSweeping());
+		return shouldSweep(attacker, context.isStrong(), context.isCritical(), context.isSprint());
+	}
+	
+	protected boolean shouldSweep(LivingEntity attacker, boolean strong, boolean critical, boolean sprint) {
+		if (!strong || critical || sprint || !attacker.isOnGround()) return false;
 		
 		double lastMoveDistance = attacker.getPreviousPosition().distance(attacker.getPosition()) * 0.6;
 		if (lastMoveDistance >= attacker.getAttributeValue(Attribute.MOVEMENT_SPEED)) return false;
@@ -69,39 +89,53 @@ public class VanillaSweepingFeature implements SweepingFeature {
 	@Override
 	public Collection<LivingEntity> applySweeping(LivingEntity attacker, LivingEntity target, float damage) {
 		float sweepingDamage = getSweepingDamage(attacker, damage);
+		ItemStack weapon = attacker.getItemInMainHand();
+		DamageType damageType = attacker instanceof Player ? DamageType.PLAYER_ATTACK : DamageType.MOB_ATTACK;
+		
+		// Enchantment damage only depends on the group of the victim, so it is calculated once per group
+		float[] groupDamage = new float[ENTITY_GROUPS.length];
+		Arrays.fill(groupDamage, Float.NaN);
 		
-		// Loop and check for colliding entities
-		List<LivingEntity> affectedEntities = new ArrayList<>();
-		BoundingBox boundingBox = target.getBoundingBox().expand(1.0, 0.25, 1.0);
-		assert target.getInstance() != null;
-		for (Entity nearbyEntity : target.getInstance().getNearbyEntities(target.getPosition(), 2)) {
-			if (nearbyEntity == target || nearbyEntity == attacker) continue;
-			if (!(nearbyEntity instanceof LivingEntity living)) continue;
-			if (nearbyEntity.getEntityType() == EntityType.ARMOR_STAND) continue;
-			if (!boundingBox.intersectEntity(target.getPosition(), nearbyEntity)) continue;
+		Instance instance = target.getInstance();
+		assert instance != null;
+		Pos targetPosition = target.getPosition();
+		BoundingBox boundingBox = target.getBoundingBox();
+		// Same area as the bounding box of the target expanded by (1.0, 0.25, 1.0):
+		// the width grows by 0.5 on each side and the height only grows at the top
+		List<LivingEntity> victims = AreaDamage.query(
+				instance,
+				targetPosition.x() + boundingBox.minX() - 0.5,
+				targetPosition.y() + boundingBox.minY(),
+				targetPosition.z() + boundingBox.minZ() - 0.5,
+				targetPosition.x() + boundingBox.maxX() + 0.5,
+				targetPosition.y() + boundingBox.maxY() + 0.25,
+				targetPosition.z() + boundingBox.maxZ() + 0.5,
+				LivingEntity.class,
+				living -> living != target && living != attacker
+						&& living.getEntityType() != EntityType.ARMOR_STAND
+						// Only entities within 2 blocks of the target, like the nearby entity search this replaced
+						&& living.getPosition().distanceSquared(targetPosition) <= 4.0
+						&& attacker.getPosition().distanceSquared(living.getPosition()) < 9.0
+		);
+		
+		// Apply sweeping knockback and damage to the entities
+		List<LivingEntity> affectedEntities = AreaDamage.apply(victims, living -> {
+			knockbackFeature.applySweepingKnockback(attacker, living);
+			
+			int group = EntityGroup.ofEntity(living).ordinal();
+			if (Float.isNaN(groupDamage[group]))
+				groupDamage[group] = enchantmentFeature.getAttackDamage(weapon, ENTITY_GROUPS[group]);
 			
-			// Apply sweeping knockback and damage to the entity
-			if (attacker.getPosition().distanceSquared(nearbyEntity.getPosition()) < 9.0) {
-				affectedEntities.add(living);
-				knockbackFeature.applySweepingKnockback(attacker, target);
-				
-				float currentDamage = sweepingDamage + enchantmentFeature.getAttackDamage(
-						attacker.getItemInMainHand(), EntityGroup.ofEntity(target));
-				
-				living.damage(new Damage(
-						attacker instanceof Player ? DamageType.PLAYER_ATTACK : DamageType.MOB_ATTACK,
-						attacker, attacker,
-						null, currentDamage
-				));
-			}
-		}
+			living.damage(new Damage(damageType, attacker, attacker, null, sweepingDamage + groupDamage[group]));
+			return true;
+		});
 		
 		// Spawn sweeping particles
 		Pos pos = attacker.getPosition();
 		double x = -Math.sin(Math.toRadians(pos.yaw()));
 		double z = Math.cos(Math.toRadians(pos.yaw()));
 		
-		attacker.sendPacketToViewersAndSelf(new ParticlePacket(
+		CombatFeedback.sendToViewersAndSelf(attacker, new ParticlePacket(
 				Particle.SWEEP_ATTACK, false,false,
 				pos.x() + x, pos.y() + attacker.getBoundingBox().height() * 0.5, pos.z() + z,
 				(float) x, 0, (float) z,
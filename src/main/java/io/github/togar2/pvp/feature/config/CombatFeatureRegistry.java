@@ -14,7 +14,7 @@ public class CombatFeatureRegistry {
 	private static final EventNode<Event> initNode = EventNode.all("combat-feature-init");
 	private static final List<DefinedFeature<?>> features = new ArrayList<>();
 	
-	public static void init(DefinedFeature<?> feature) {
+	public static synchronized void init(DefinedFeature<?> feature) {
 		if (!features.contains(feature)) {
 			features.add(feature);
 			if (feature.playerInit() != null) {
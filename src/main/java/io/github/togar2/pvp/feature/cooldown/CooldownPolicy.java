@@ -0,0 +1,137 @@
+package io.github.togar2.pvp.feature.cooldown;
+
+import net.minestom.server.item.Material;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable policy which decides which cooldown group an item belongs to and how long its cooldowns last.
+ * <p>
+ * Materials can be put in a shared group, so that a cooldown on one of them applies to all of them
+ * (for example all kinds of golden apples). Items with a {@code use_cooldown} component which has a group
+ * always use that group instead.
+ * <p>
+ * The duration of every cooldown is multiplied by the multiplier of its group, or by the default multiplier.
+ * The group of every material is resolved when the policy is created, so looking it up only needs an array access.
+ * <p>
+ * A policy can be selected for an instance using {@link VanillaItemCooldownFeature#POLICY}.
+ */
+public final class CooldownPolicy {
+	public static final CooldownPolicy DEFAULT = builder().build();
+	
+	private final String[] groupByMaterialId;
+	private final Map<String, Double> multipliers;
+	private final double defaultMultiplier;
+	
+	private CooldownPolicy(Map<Material, String> groups, Map<String, Double> multipliers, double defaultMultiplier) {
+		this.multipliers = Map.copyOf(multipliers);
+		this.defaultMultiplier = defaultMultiplier;
+		
+		int size = 0;
+		for (Material material : Material.values()) {
+			size = Math.max(size, material.id() + 1);
+		}
+		
+		groupByMaterialId = new String[size];
+		for (Material material : Material.values()) {
+			String group = groups.get(material);
+			groupByMaterialId[material.id()] = group != null ? group : material.key().asString();
+		}
+	}
+	
+	/**
+	 * @param material the material
+	 * @return the cooldown group of the material
+	 */
+	public String getGroup(Material material) {
+		int id = material.id();
+		return id < groupByMaterialId.length ? groupByMaterialId[id] : material.key().asString();
+	}
+	
+	/**
+	 * @param group the cooldown group
+	 * @return the multiplier for the duration of cooldowns of the group
+	 */
+	public double getMultiplier(String group) {
+		Double multiplier = multipliers.get(group);
+		return multiplier != null ? multiplier : defaultMultiplier;
+	}
+	
+	/**
+	 * Applies the multiplier of a group to the duration of a cooldown.
+	 *
+	 * @param group the cooldown group
+	 * @param ticks the duration of the cooldown in ticks
+	 * @return the duration of the cooldown after applying the multiplier
+	 */
+	public int apply(String group, int ticks) {
+		double multiplier = getMultiplier(group);
+		if (multiplier == 1 || ticks <= 0) return ticks;
+		return (int) Math.round(ticks * multiplier);
+	}
+	
+	public static Builder builder() {
+		return new Builder();
+	}
+	
+	public static class Builder {
+		private final Map<Material, String> groups = new HashMap<>();
+		private final Map<String, Double> multipliers = new HashMap<>();
+		private double defaultMultiplier = 1;
+		
+		/**
+		 * Puts materials in a shared cooldown group.
+		 *
+		 * @param group the cooldown group
+		 * @param materials the materials
+		 * @return this builder
+		 */
+		public Builder group(String group, Material... materials) {
+			for (Material material : materials) {
+				groups.put(material, group);
+			}
+			return this;
+		}
+		
+		/**
+		 * Sets the multiplier for the duration of cooldowns which have no multiplier for their group.
+		 *
+		 * @param multiplier the multiplier
+		 * @return this builder
+		 */
+		public Builder multiplier(double multiplier) {
+			this.defaultMultiplier = multiplier;
+			return this;
+		}
+		
+		/**
+		 * Sets the multiplier for the duration of cooldowns of a group.
+		 *
+		 * @param group the cooldown group
+		 * @param multiplier the multiplier
+		 * @return this builder
+		 */
+		public Builder multiplier(String group, double multiplier) {
+			multipliers.put(group, multiplier);
+			return this;
+		}
+		
+		/**
+		 * Sets the multiplier for the duration of cooldowns of the group of a material.
+		 * The material must be put in its group before calling this method.
+		 *
+		 * @param material the material
+		 * @param multiplier the multiplier
+		 * @return this builder
+		 */
+		public Builder multiplier(Material material, double multiplier) {
+			String group = groups.get(material);
+			return multiplier(group != null ? group : material.key().asString(), multiplier);
+		}
+		
+		public CooldownPolicy build() {
+			return new CooldownPolicy(groups, multipliers, defaultMultiplier);
+		}
+	}
+}
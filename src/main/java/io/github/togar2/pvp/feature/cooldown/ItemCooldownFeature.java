@@ -1,11 +1,17 @@
 package io.github.togar2.pvp.feature.cooldown;
 
 import io.github.togar2.pvp.feature.CombatFeature;
+import net.minestom.server.component.DataComponents;
 import net.minestom.server.entity.Player;
+import net.minestom.server.item.ItemStack;
 import net.minestom.server.item.Material;
+import net.minestom.server.item.component.UseCooldown;
 
 /**
  * Combat feature to manage a players item cooldown animation.
+ * <p>
+ * Cooldowns are keyed by cooldown group, which is shared by all items in the group.
+ * The methods which take a {@link Material} use the group of that material.
  */
 public interface ItemCooldownFeature extends CombatFeature {
 	ItemCooldownFeature NO_OP = new ItemCooldownFeature() {
@@ -16,9 +22,61 @@ public interface ItemCooldownFeature extends CombatFeature {
 		
 		@Override
 		public void setCooldown(Player player, Material material, int ticks) {}
+		
+		@Override
+		public boolean hasCooldown(Player player, String group) {
+			return false;
+		}
+		
+		@Override
+		public void setCooldown(Player player, String group, int ticks) {}
 	};
 	
 	boolean hasCooldown(Player player, Material material);
 	
 	void setCooldown(Player player, Material material, int ticks);
+	
+	/**
+	 * @param player the player
+	 * @param group the cooldown group
+	 * @return true if the group has a cooldown for the player
+	 */
+	default boolean hasCooldown(Player player, String group) {
+		Material material = Material.fromKey(group);
+		return material != null && hasCooldown(player, material);
+	}
+	
+	/**
+	 * Sets the cooldown of a group for the player.
+	 *
+	 * @param player the player
+	 * @param group the cooldown group
+	 * @param ticks the duration of the cooldown in ticks, 0 to remove the cooldown
+	 */
+	default void setCooldown(Player player, String group, int ticks) {
+		Material material = Material.fromKey(group);
+		if (material != null) setCooldown(player, material, ticks);
+	}
+	
+	/**
+	 * Gets the cooldown group of an item for a player, which is the group of its {@code use_cooldown} component,
+	 * or the group of its material if it has no such component or the component has no group.
+	 *
+	 * @param player the player
+	 * @param stack the item
+	 * @return the cooldown group
+	 */
+	default String getCooldownGroup(Player player, ItemStack stack) {
+		UseCooldown useCooldown = stack.get(DataComponents.USE_COOLDOWN);
+		if (useCooldown != null && useCooldown.cooldownGroup() != null) return useCooldown.cooldownGroup();
+		return stack.material().key().asString();
+	}
+	
+	default boolean hasCooldown(Player player, ItemStack stack) {
+		return hasCooldown(player, getCooldownGroup(player, stack));
+	}
+	
+	default void setCooldown(Player player, ItemStack stack, int ticks) {
+		setCooldown(player, getCooldownGroup(player, stack), ticks);
+	}
 }
@@ -1,12 +1,12 @@
 package io.github.togar2.pvp.feature.cooldown;
 
+import io.github.togar2.pvp.entity.state.CombatState;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.RegistrableFeature;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.utils.CombatVersion;
 import net.minestom.server.entity.Player;
-import net.minestom.server.entity.attribute.Attribute;
 import net.minestom.server.event.EventListener;
 import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.PlayerChangeHeldSlotEvent;
@@ -24,6 +24,11 @@ public class VanillaAttackCooldownFeature implements AttackCooldownFeature, Regi
 			FeatureType.VERSION
 	);
 	
+	/**
+	 * @deprecated the value is stored in {@link CombatState}, this tag is only used when {@link CombatState#setTagCompatibility(boolean)} is enabled.
+ * Otherwise changes to it are ignored, and it is not saved with the entity
+	 */
+	@Deprecated
 	public static final Tag<Long> LAST_ATTACKED_TICKS = Tag.Long("lastAttackedTicks");
 	
 	private final FeatureConfiguration configuration;
@@ -53,17 +58,17 @@ public class VanillaAttackCooldownFeature implements AttackCooldownFeature, Regi
 	
 	@Override
 	public void resetCooldownProgress(Player player) {
-		player.setTag(LAST_ATTACKED_TICKS, player.getAliveTicks());
+		CombatState.of(player).setLastAttackedTicks(player.getAliveTicks());
 	}
 	
 	@Override
 	public double getAttackCooldownProgress(Player player) {
 		if (version.legacy()) return 1.0;
 		
-		Long lastAttacked = player.getTag(LAST_ATTACKED_TICKS);
-		if (lastAttacked == null) return 1.0;
+		CombatState state = CombatState.of(player);
+		if (!state.hasAttacked()) return 1.0;
 		
-		long timeSinceLastAttacked = player.getAliveTicks() - lastAttacked;
+		long timeSinceLastAttacked = player.getAliveTicks() - state.getLastAttackedTicks();
 		return MathUtils.clamp(
 				(timeSinceLastAttacked + 0.5) / getAttackCooldownProgressPerTick(player),
 				0, 1
@@ -71,6 +76,6 @@ public class VanillaAttackCooldownFeature implements AttackCooldownFeature, Regi
 	}
 	
 	protected double getAttackCooldownProgressPerTick(Player player) {
-		return (1 / player.getAttributeValue(Attribute.ATTACK_SPEED)) * 20;
+		return CombatState.of(player).getTicksPerFullCharge();
 	}
 }
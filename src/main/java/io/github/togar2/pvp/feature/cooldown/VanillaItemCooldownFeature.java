@@ -1,24 +1,32 @@
 package io.github.togar2.pvp.feature.cooldown;
 
+import io.github.togar2.pvp.entity.state.CombatState;
+import io.github.togar2.pvp.entity.state.ItemCooldowns;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.RegistrableFeature;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
-import net.minestom.server.MinecraftServer;
+import io.github.togar2.pvp.utils.OverrideUtil;
+import net.minestom.server.component.DataComponents;
 import net.minestom.server.entity.Player;
 import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.PlayerTickEvent;
 import net.minestom.server.event.player.PlayerUseItemEvent;
 import net.minestom.server.event.trait.EntityInstanceEvent;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.item.ItemStack;
 import net.minestom.server.item.Material;
+import net.minestom.server.item.component.UseCooldown;
 import net.minestom.server.network.packet.server.play.SetCooldownPacket;
 import net.minestom.server.tag.Tag;
 
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
 
 /**
  * Vanilla implementation of {@link ItemCooldownFeature}
+ * <p>
+ * The group and the duration of cooldowns are decided by the {@link CooldownPolicy} in the {@link #POLICY} tag
+ * of the instance of the player, otherwise by the default policy of this feature.
+ * Cooldown packets are not sent immediately, every changed group is sent once at the end of the tick of the player.
  */
 public class VanillaItemCooldownFeature implements ItemCooldownFeature, RegistrableFeature {
 	public static final DefinedFeature<VanillaItemCooldownFeature> DEFINED = new DefinedFeature<>(
@@ -26,10 +34,42 @@ public class VanillaItemCooldownFeature implements ItemCooldownFeature, Registra
 			VanillaItemCooldownFeature::initPlayer
 	);
 	
+	/**
+	 * Creates an item cooldown feature which uses the given policy in instances which have no policy.
+	 *
+	 * @param defaultPolicy the default policy
+	 * @return the defined feature
+	 */
+	public static DefinedFeature<VanillaItemCooldownFeature> withPolicy(CooldownPolicy defaultPolicy) {
+		return new DefinedFeature<>(
+				FeatureType.ITEM_COOLDOWN, configuration -> new VanillaItemCooldownFeature(defaultPolicy),
+				VanillaItemCooldownFeature::initPlayer
+		);
+	}
+	
+	public static final Tag<CooldownPolicy> POLICY = Tag.Transient("cooldownPolicy");
+	
+	/**
+	 * @deprecated the value is stored in {@link CombatState#getItemCooldowns()}, this tag is no longer written
+	 */
+	@Deprecated
 	public static final Tag<Map<Material, Long>> COOLDOWN_END = Tag.Transient("cooldownEnd");
 	
 	private static void initPlayer(Player player, boolean firstInit) {
-		player.setTag(COOLDOWN_END, new HashMap<>());
+		CombatState.of(player).resetItemCooldowns();
+	}
+	
+	private final CooldownPolicy defaultPolicy;
+	// Subclasses overriding the material variant of sendCooldownPacket keep receiving the packets of material groups
+	private final boolean materialSendCooldownPacket = OverrideUtil.isOverridden(getClass(), VanillaItemCooldownFeature.class,
+			"sendCooldownPacket", Player.class, Material.class, int.class);
+	
+	public VanillaItemCooldownFeature() {
+		this(CooldownPolicy.DEFAULT);
+	}
+	
+	public VanillaItemCooldownFeature(CooldownPolicy defaultPolicy) {
+		this.defaultPolicy = defaultPolicy;
 	}
 	
 	@Override
@@ -42,40 +82,97 @@ public class VanillaItemCooldownFeature implements ItemCooldownFeature, Registra
 	public void init(EventNode<EntityInstanceEvent> node) {
 		node.addListener(PlayerTickEvent.class, event -> {
 			Player player = event.getPlayer();
-			Map<Material, Long> cooldown = player.getTag(COOLDOWN_END);
-			if (cooldown.isEmpty()) return;
-			long time = System.currentTimeMillis();
+			ItemCooldowns cooldowns = CombatState.of(player).getItemCooldowns();
+			if (cooldowns.isEmpty() && !cooldowns.hasChanges()) return;
 			
-			Iterator<Map.Entry<Material, Long>> iterator = cooldown.entrySet().iterator();
+			long tick = player.getAliveTicks();
+			cooldowns.removeExpired(tick);
+			if (!cooldowns.hasChanges()) return;
 			
-			while (iterator.hasNext()) {
-				Map.Entry<Material, Long> entry = iterator.next();
-				if (entry.getValue() <= time) {
-					iterator.remove();
-					sendCooldownPacket(player, entry.getKey(), 0);
-				}
-			}
+			cooldowns.drainChanges(tick, (group, ticks) -> sendCooldownPacket(player, group, ticks));
 		});
 		
 		node.addListener(PlayerUseItemEvent.class, event -> {
-			if (hasCooldown(event.getPlayer(), event.getItemStack().material()))
+			Player player = event.getPlayer();
+			if (hasCooldown(player, getCooldownGroup(player, event.getItemStack())))
 				event.setCancelled(true);
 		});
 	}
 	
+	/**
+	 * @param player the player
+	 * @return the cooldown policy for the player
+	 */
+	public CooldownPolicy getCooldownPolicy(Player player) {
+		Instance instance = player.getInstance();
+		if (instance != null) {
+			CooldownPolicy policy = instance.getTag(POLICY);
+			if (policy != null) return policy;
+		}
+		
+		return defaultPolicy;
+	}
+	
+	@Override
+	public String getCooldownGroup(Player player, ItemStack stack) {
+		UseCooldown useCooldown = stack.get(DataComponents.USE_COOLDOWN);
+		if (useCooldown != null && useCooldown.cooldownGroup() != null) return useCooldown.cooldownGroup();
+		return getCooldownPolicy(player).getGroup(stack.material());
+	}
+	
 	@Override
 	public boolean hasCooldown(Player player, Material material) {
-		Map<Material, Long> cooldown = player.getTag(COOLDOWN_END);
-		return cooldown.containsKey(material) && cooldown.get(material) > System.currentTimeMillis();
+		return hasCooldown(player, getCooldownPolicy(player).getGroup(material));
 	}
 	
 	@Override
 	public void setCooldown(Player player, Material material, int ticks) {
-		Map<Material, Long> cooldown = player.getTag(COOLDOWN_END);
-		cooldown.put(material, System.currentTimeMillis() + (long) ticks * MinecraftServer.TICK_MS);
-		sendCooldownPacket(player, material, ticks);
+		setCooldown(player, getCooldownPolicy(player).getGroup(material), ticks);
+	}
+	
+	@Override
+	public boolean hasCooldown(Player player, String group) {
+		return CombatState.of(player).getItemCooldowns().hasCooldown(group, player.getAliveTicks());
+	}
+	
+	/**
+	 * Sets the cooldown of a group for the player, after applying the multiplier of the policy for the player.
+	 * The client is updated at the end of the tick of the player.
+	 *
+	 * @param player the player
+	 * @param group the cooldown group
+	 * @param ticks the duration of the cooldown in ticks, 0 to remove the cooldown
+	 */
+	@Override
+	public void setCooldown(Player player, String group, int ticks) {
+		ticks = getCooldownPolicy(player).apply(group, ticks);
+		CombatState.of(player).getItemCooldowns().set(group, player.getAliveTicks(), ticks);
+	}
+	
+	/**
+	 * Sends the cooldown of a group to the player. Called at the end of the tick of the player for every changed group.
+	 *
+	 * @param player the player
+	 * @param group the cooldown group
+	 * @param ticks the remaining duration of the cooldown in ticks, 0 if the cooldown was removed
+	 */
+	protected void sendCooldownPacket(Player player, String group, int ticks) {
+		if (materialSendCooldownPacket) {
+			Material material = Material.fromKey(group);
+			if (material != null) {
+				sendCooldownPacket(player, material, ticks);
+				return;
+			}
+		}
+		
+		player.getPlayerConnection().sendPacket(new SetCooldownPacket(group, ticks));
 	}
 	
+	/**
+	 * @deprecated cooldowns are sent per group, override {@link #sendCooldownPacket(Player, String, int)} instead.
+	 * Overrides of this method are still called for groups which are the key of a material.
+	 */
+	@Deprecated
 	protected void sendCooldownPacket(Player player, Material material, int ticks) {
 		player.getPlayerConnection().sendPacket(new SetCooldownPacket(material.key().asString(), ticks));
 	}
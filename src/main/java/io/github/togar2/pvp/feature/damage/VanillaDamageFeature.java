@@ -1,6 +1,8 @@
 package io.github.togar2.pvp.feature.damage;
 
 import io.github.togar2.pvp.damage.DamageTypeInfo;
+import io.github.togar2.pvp.entity.state.CombatState;
+import io.github.togar2.pvp.events.CombatEventHandles;
 import io.github.togar2.pvp.events.EntityPreDeathEvent;
 import io.github.togar2.pvp.events.FinalDamageEvent;
 import io.github.togar2.pvp.feature.FeatureType;
@@ -15,6 +17,7 @@ import io.github.togar2.pvp.feature.knockback.KnockbackFeature;
 import io.github.togar2.pvp.feature.provider.DifficultyProvider;
 import io.github.togar2.pvp.feature.totem.TotemFeature;
 import io.github.togar2.pvp.feature.tracking.TrackingFeature;
+import io.github.togar2.pvp.utils.CombatFeedback;
 import io.github.togar2.pvp.utils.CombatVersion;
 import io.github.togar2.pvp.utils.EntityUtil;
 import net.kyori.adventure.sound.Sound;
@@ -49,7 +52,17 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 			FeatureType.ITEM_DAMAGE, FeatureType.VERSION
 	);
 	
+	/**
+	 * @deprecated the value is stored in {@link CombatState}, this tag is only used when {@link CombatState#setTagCompatibility(boolean)} is enabled.
+ * Otherwise changes to it are ignored, and it is not saved with the entity
+	 */
+	@Deprecated
 	public static final Tag<Long> NEW_DAMAGE_TIME = Tag.Long("newDamageTime");
+	/**
+	 * @deprecated the value is stored in {@link CombatState}, this tag is only used when {@link CombatState#setTagCompatibility(boolean)} is enabled.
+ * Otherwise changes to it are ignored, and it is not saved with the entity
+	 */
+	@Deprecated
 	public static final Tag<Float> LAST_DAMAGE_AMOUNT = Tag.Float("lastDamageAmount");
 	
 	private final FeatureConfiguration configuration;
@@ -134,9 +147,10 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 		
 		// Invulnerability ticks
 		boolean hurtSoundAndAnimation = true;
-		long newDamageTime = entity.hasTag(NEW_DAMAGE_TIME) ? entity.getTag(NEW_DAMAGE_TIME) : -10000;
+		CombatState state = CombatState.of(entity);
+		long newDamageTime = state.getNewDamageTime();
 		if (entity.getAliveTicks() - newDamageTime < 0) {
-			float lastDamage = entity.hasTag(LAST_DAMAGE_AMOUNT) ? entity.getTag(LAST_DAMAGE_AMOUNT) : 0;
+			float lastDamage = state.getLastDamageAmount();
 			
 			if (amount <= lastDamage) {
 				event.setCancelled(true);
@@ -151,14 +165,21 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 		amount = armorFeature.getDamageWithProtection(entity, damageType, amount);
 		
 		damage.setAmount(amount);
-		FinalDamageEvent finalDamageEvent = new FinalDamageEvent(entity, damage, 10, FinalDamageEvent.AnimationType.MODERN);
-		EventDispatcher.call(finalDamageEvent);
-		// New amount has been set in the Damage class
-		amount = damage.getAmount();
-		
-		if (finalDamageEvent.isCancelled()) {
-			event.setCancelled(true);
-			return;
+		int invulnerabilityTicks = 10;
+		FinalDamageEvent.AnimationType animationType = FinalDamageEvent.AnimationType.MODERN;
+		if (CombatEventHandles.FINAL_DAMAGE.hasListener()) {
+			FinalDamageEvent finalDamageEvent = new FinalDamageEvent(entity, damage, invulnerabilityTicks, animationType);
+			CombatEventHandles.FINAL_DAMAGE.call(finalDamageEvent);
+			// New amount has been set in the Damage class
+			amount = damage.getAmount();
+			
+			if (finalDamageEvent.isCancelled()) {
+				event.setCancelled(true);
+				return;
+			}
+			
+			invulnerabilityTicks = finalDamageEvent.getInvulnerabilityTicks();
+			animationType = finalDamageEvent.getAnimationType();
 		}
 		
 		// Register damage to tracking feature
@@ -170,21 +191,19 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 		if (amountBeforeProcessing != 0 && entity instanceof Player player)
 			exhaustionFeature.addDamageExhaustion(player, damageType);
 		
-		if (register) entity.setTag(LAST_DAMAGE_AMOUNT, amountBeforeProcessing);
+		if (register) state.setLastDamageAmount(amountBeforeProcessing);
 		
 		if (hurtSoundAndAnimation) {
-			entity.setTag(NEW_DAMAGE_TIME, entity.getAliveTicks() + finalDamageEvent.getInvulnerabilityTicks());
+			state.setNewDamageTime(entity.getAliveTicks() + invulnerabilityTicks);
 			
 			if (fullyBlocked) {
 				// Shield status
 				entity.triggerStatus((byte) 29);
 			} else {
 				// Send damage animation
-				FinalDamageEvent.AnimationType animationType = finalDamageEvent.getAnimationType();
-				
 				if (animationType != FinalDamageEvent.AnimationType.NONE) {
 					boolean legacyAnimation = animationType == FinalDamageEvent.AnimationType.LEGACY;
-					entity.sendPacketToViewersAndSelf(new DamageEventPacket(
+					CombatFeedback.sendToViewersAndSelf(entity, new DamageEventPacket(
 							entity.getEntityId(),
 							MinecraftServer.getDamageTypeRegistry().getId(damage.getType()),
 							legacyAnimation || damage.getAttacker() == null ? 0 : damage.getAttacker().getEntityId() + 1,
@@ -243,7 +262,7 @@ public class VanillaDamageFeature implements DamageFeature, RegistrableFeature {
 		
 		if (hurtSoundAndAnimation) {
 			// Play sound (copied from Minestom, because of complications with cancelling)
-			if (sound != null) entity.sendPacketToViewersAndSelf(new SoundEffectPacket(
+			if (sound != null) CombatFeedback.sendToViewersAndSelf(entity, new SoundEffectPacket(
 					sound, entity instanceof Player ? Sound.Source.PLAYER : Sound.Source.HOSTILE,
 					entity.getPosition(),
 					//TODO seed randomizing?
@@ -0,0 +1,242 @@
+package io.github.togar2.pvp.feature.effect;
+
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.potion.Potion;
+import net.minestom.server.potion.TimedPotion;
+import net.minestom.server.timer.TaskSchedule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The effects of the entities of an instance which apply periodic updates, ordered by the tick of their next update.
+ * <p>
+ * The registry is ticked by a single task in the scheduler of one of the entities it tracks, the driver,
+ * so it runs on the thread which ticks the entities of the instance. When the driver is removed or leaves the instance,
+ * another tracked entity takes over, and once nothing is left to do the task stops until an effect is added again.
+ * It only touches the effects which are due, so entities without effects and effects without updates are never visited.
+ * An effect is dropped from the registry once it is removed or replaced, or when its entity is removed
+ * or has moved to another instance.
+ * <p>
+ * The due effects of a tick are updated ordered by entity id and effect id, so the order does not depend on
+ * the order in which the effects were added.
+ * <p>
+ * The registry also collects the entities whose potion visibility has to be updated,
+ * and updates each of them once per tick, no matter how many of their effects changed.
+ * Entities which moved to another instance in the meantime are passed on to the registry of that instance.
+ */
+final class ActiveEffectRegistry {
+	private static final Comparator<ScheduledEffect> APPLY_ORDER = Comparator
+			.<ScheduledEffect>comparingInt(effect -> effect.entity.getEntityId())
+			.thenComparingInt(effect -> effect.potion.effect().id());
+	
+	private final Instance instance;
+	private final VanillaEffectFeature feature;
+	
+	// Effects can be added from any thread, they are moved to the queue in the tick of the registry
+	private final Queue<ScheduledEffect> inbox = new ConcurrentLinkedQueue<>();
+	private final PriorityQueue<ScheduledEffect> queue = new PriorityQueue<>();
+	// The same effects as in the queue, to avoid scheduling an effect twice when its entity re-enters the instance
+	// Only changed by the driver, concurrent so that another thread can look for a new driver in it
+	private final Set<ScheduledEffect> scheduled = ConcurrentHashMap.newKeySet();
+	private final List<ScheduledEffect> due = new ArrayList<>();
+	private long tick = 0;
+	
+	// The entity whose scheduler ticks the registry, null while the registry is idle
+	private final AtomicReference<LivingEntity> driver = new AtomicReference<>();
+	// The world age of the instance in the last tick of the registry, so a new driver does not tick twice in a server tick
+	private long lastWorldAge = Long.MIN_VALUE;
+	
+	private final Set<LivingEntity> visibilityChanged = ConcurrentHashMap.newKeySet();
+	
+	ActiveEffectRegistry(Instance instance, VanillaEffectFeature feature) {
+		this.instance = instance;
+		this.feature = feature;
+	}
+	
+	/**
+	 * Schedules the first update of an effect.
+	 *
+	 * @param entity the entity which has the effect
+	 * @param potion the potion of the effect, as stored on the entity
+	 * @param delay the amount of ticks until the first update, 0 to update in the next tick of the registry
+	 */
+	void schedule(LivingEntity entity, Potion potion, int delay) {
+		inbox.add(new ScheduledEffect(entity, potion, delay));
+		ensureDriven(entity);
+	}
+	
+	/**
+	 * Marks the potion visibility of an entity to be updated in the next tick of the registry.
+	 *
+	 * @param entity the entity
+	 */
+	void markVisibilityChanged(LivingEntity entity) {
+		visibilityChanged.add(entity);
+		ensureDriven(entity);
+	}
+	
+	/**
+	 * Passes the ticking of the registry on to another entity if the removed entity was its driver.
+	 *
+	 * @param entity the removed entity
+	 */
+	void onRemoved(LivingEntity entity) {
+		if (driver.get() == entity) handOver(entity);
+	}
+	
+	private void ensureDriven(LivingEntity candidate) {
+		LivingEntity current = driver.get();
+		if (current == null) {
+			tryDrive(candidate);
+		} else if (current.isRemoved()) {
+			handOver(current);
+		}
+	}
+	
+	private void handOver(LivingEntity previous) {
+		if (driver.compareAndSet(previous, null)) wakeUp();
+	}
+	
+	// Looks for an entity in the instance which has pending work, to make it the driver
+	private void wakeUp() {
+		for (ScheduledEffect effect : inbox) {
+			if (tryDrive(effect.entity)) return;
+		}
+		for (LivingEntity entity : visibilityChanged) {
+			if (tryDrive(entity)) return;
+		}
+		for (ScheduledEffect effect : scheduled) {
+			if (tryDrive(effect.entity)) return;
+		}
+	}
+	
+	/**
+	 * @return false if the candidate can not drive the registry, true if it or another entity drives it
+	 */
+	private boolean tryDrive(LivingEntity candidate) {
+		if (candidate.isRemoved() || candidate.getInstance() != instance) return false;
+		if (!driver.compareAndSet(null, candidate)) return true;
+		
+		// Started from the tick of the candidate, since this can be called from any thread
+		candidate.scheduleNextTick(ignored -> candidate.scheduler().submitTask(() -> drive(candidate)));
+		return true;
+	}
+	
+	private TaskSchedule drive(LivingEntity entity) {
+		if (driver.get() != entity) return TaskSchedule.stop();
+		if (entity.isRemoved() || entity.getInstance() != instance) {
+			handOver(entity);
+			return TaskSchedule.stop();
+		}
+		
+		tick();
+		if (!queue.isEmpty() || !inbox.isEmpty() || !visibilityChanged.isEmpty()) return TaskSchedule.nextTick();
+		
+		// Idle, work added by another thread while the driver was still set is picked up by waking up again
+		driver.set(null);
+		wakeUp();
+		return TaskSchedule.stop();
+	}
+	
+	private void tick() {
+		// The instance (and its world age) is ticked before its entities, so the world age identifies the server tick
+		long worldAge = instance.getWorldAge();
+		if (worldAge == lastWorldAge) return;
+		lastWorldAge = worldAge;
+		
+		tick++;
+		
+		ScheduledEffect added;
+		while ((added = inbox.poll()) != null) {
+			if (!scheduled.add(added)) continue;
+			added.due += tick;
+			queue.add(added);
+		}
+		
+		while (!queue.isEmpty() && queue.peek().due <= tick) {
+			due.add(queue.poll());
+		}
+		
+		if (!due.isEmpty()) {
+			updateDue();
+			due.clear();
+		}
+		
+		// After the updates, since they can add or remove effects
+		if (visibilityChanged.isEmpty()) return;
+		Iterator<LivingEntity> iterator = visibilityChanged.iterator();
+		while (iterator.hasNext()) {
+			LivingEntity entity = iterator.next();
+			iterator.remove();
+			if (entity.isRemoved()) continue;
+			
+			if (entity.getInstance() == instance) {
+				feature.updatePotionVisibility(entity);
+			} else {
+				// The entity moved to another instance, the registry of that instance updates it in its own tick
+				feature.markVisibilityChanged(entity);
+			}
+		}
+	}
+	
+	private void updateDue() {
+		due.sort(APPLY_ORDER);
+		
+		for (ScheduledEffect effect : due) {
+			// Checked for every effect, since an update applied before might have removed it (for example by killing the entity)
+			int delay = isActive(effect) ? feature.updateEffect(effect.entity, effect.potion) : 0;
+			if (delay > 0) {
+				effect.due = tick + delay;
+				queue.add(effect);
+			} else {
+				scheduled.remove(effect);
+			}
+		}
+	}
+	
+	private boolean isActive(ScheduledEffect effect) {
+		LivingEntity entity = effect.entity;
+		if (entity.isRemoved() || entity.getInstance() != instance) return false;
+		
+		TimedPotion current = entity.getEffect(effect.potion.effect());
+		return current != null && current.potion() == effect.potion;
+	}
+	
+	private static final class ScheduledEffect implements Comparable<ScheduledEffect> {
+		private final LivingEntity entity;
+		private final Potion potion;
+		private long due;
+		
+		private ScheduledEffect(LivingEntity entity, Potion potion, long due) {
+			this.entity = entity;
+			this.potion = potion;
+			this.due = due;
+		}
+		
+		@Override
+		public int compareTo(ScheduledEffect other) {
+			return Long.compare(due, other.due);
+		}
+		
+		// Identity of the entity and the potion, the due tick changes while the effect is scheduled
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof ScheduledEffect other && entity == other.entity && potion == other.potion;
+		}
+		
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(entity) + System.identityHashCode(potion);
+		}
+	}
+}
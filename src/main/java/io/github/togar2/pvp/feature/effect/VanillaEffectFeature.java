@@ -1,6 +1,9 @@
 package io.github.togar2.pvp.feature.effect;
 
 import io.github.togar2.pvp.entity.projectile.Arrow;
+import io.github.togar2.pvp.entity.state.CombatState;
+import io.github.togar2.pvp.entity.state.EffectTracker;
+import io.github.togar2.pvp.events.CombatEventHandles;
 import io.github.togar2.pvp.events.PotionVisibilityEvent;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.RegistrableFeature;
@@ -21,13 +24,14 @@ import net.minestom.server.entity.GameMode;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.metadata.LivingEntityMeta;
-import net.minestom.server.event.EventDispatcher;
 import net.minestom.server.event.EventNode;
 import net.minestom.server.event.entity.EntityDeathEvent;
+import net.minestom.server.event.entity.EntityDespawnEvent;
 import net.minestom.server.event.entity.EntityPotionAddEvent;
 import net.minestom.server.event.entity.EntityPotionRemoveEvent;
-import net.minestom.server.event.entity.EntityTickEvent;
+import net.minestom.server.event.entity.EntitySpawnEvent;
 import net.minestom.server.event.trait.EntityInstanceEvent;
+import net.minestom.server.instance.Instance;
 import net.minestom.server.item.component.PotionContents;
 import net.minestom.server.particle.Particle;
 import net.minestom.server.potion.Potion;
@@ -40,6 +44,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Vanilla implementation of {@link EffectFeature}
@@ -50,10 +55,25 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 			FeatureType.EXHAUSTION, FeatureType.FOOD, FeatureType.VERSION
 	);
 	
+	/**
+	 * @deprecated the value is stored in {@link CombatState#getEffectTracker()}, this tag is no longer written
+	 */
+	@Deprecated
 	public static final Tag<Map<PotionEffect, Integer>> DURATION_LEFT = Tag.Transient("effectDurationLeft");
 	public static final int DEFAULT_POTION_COLOR = 0xff385dc6;
 	
+	private static final AtomicInteger REGISTRY_COUNTER = new AtomicInteger();
+	private static final int RESOLVED_POTIONS_CACHE_SIZE = 256;
+	
 	private final FeatureConfiguration configuration;
+	// Every feature instance ticks its own entities, in case multiple configurations are used in the same instance
+	private final Tag<ActiveEffectRegistry> activeEffectRegistry =
+			Tag.Transient("activeEffectRegistry" + REGISTRY_COUNTER.getAndIncrement());
+	
+	// Potion contents are immutable, so the potions and color they resolve to can be reused
+	// The cache is per feature, since the potions depend on the combat version
+	// It is cleared once full instead of evicting single entries, so lookups never take a lock
+	private final Map<PotionContents, ResolvedPotions> resolvedPotions = new ConcurrentHashMap<>();
 	
 	private ExhaustionFeature exhaustionFeature;
 	private FoodFeature foodFeature;
@@ -75,46 +95,33 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 		node.addListener(EntityDeathEvent.class, event ->
 				event.getEntity().clearEffects());
 		
-		node.addListener(EntityTickEvent.class, event -> {
+		// Effects are updated by the registry of the instance of their entity, instead of listening to every entity tick
+		node.addListener(EntitySpawnEvent.class, event -> {
 			if (!(event.getEntity() instanceof LivingEntity entity)) return;
-			Map<PotionEffect, Integer> potionMap = getDurationLeftMap(entity);
-			
 			for (TimedPotion potion : entity.getActiveEffects()) {
-				potionMap.putIfAbsent(potion.potion().effect(), potion.potion().duration() - 1);
-				int durationLeft = potionMap.get(potion.potion().effect());
-				
-				if (durationLeft > 0) {
-					CombatPotionEffect combatPotionEffect = CombatPotionEffects.get(potion.potion().effect());
-					int amplifier = potion.potion().amplifier();
-					
-					if (combatPotionEffect.canApplyUpdateEffect(durationLeft, amplifier)) {
-						combatPotionEffect.applyUpdateEffect(entity, amplifier, exhaustionFeature, foodFeature);
-					}
-					
-					potionMap.put(potion.potion().effect(), durationLeft - 1);
-				}
-			}
-			
-			if (entity instanceof Player player && player.hasEffect(PotionEffect.ABSORPTION) && player.getAdditionalHearts() <= 0) {
-				player.removeEffect(PotionEffect.ABSORPTION);
-			}
-			
-			//TODO keep track of underlying potions with longer duration
-			if (potionMap.size() != entity.getActiveEffects().size()) {
-				potionMap.keySet().removeIf(effect -> !entity.hasEffect(effect));
+				scheduleEffect(entity, event.getSpawnInstance(), potion.potion(), potion.startingTicks());
 			}
 		});
 		
+		// The registry is ticked by one of its entities, which has to be replaced when it is removed
+		node.addListener(EntityDespawnEvent.class, event -> {
+			if (!(event.getEntity() instanceof LivingEntity entity)) return;
+			Instance instance = entity.getInstance();
+			if (instance == null) return;
+			ActiveEffectRegistry registry = instance.getTag(activeEffectRegistry);
+			if (registry != null) registry.onRemoved(entity);
+		});
+		
 		node.addListener(EntityPotionAddEvent.class, event -> {
 			if (!(event.getEntity() instanceof LivingEntity entity)) return;
-			Map<PotionEffect, Integer> potionMap = getDurationLeftMap(entity);
-			boolean infinite = event.getPotion().duration() == Potion.INFINITE_DURATION;
-			potionMap.put(event.getPotion().effect(), infinite ? Integer.MAX_VALUE : event.getPotion().duration());
+			CombatState.of(entity).getEffectTracker().add(event.getPotion(), entity.getAliveTicks());
+			Instance instance = entity.getInstance();
+			if (instance != null) scheduleEffect(entity, instance, event.getPotion(), entity.getAliveTicks());
 			
 			CombatPotionEffect combatPotionEffect = CombatPotionEffects.get(event.getPotion().effect());
 			combatPotionEffect.onApplied(entity, event.getPotion().amplifier(), version);
 			
-			updatePotionVisibility(entity);
+			markVisibilityChanged(entity);
 		});
 		
 		node.addListener(EntityPotionRemoveEvent.class, event -> {
@@ -123,21 +130,107 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 			CombatPotionEffect combatPotionEffect = CombatPotionEffects.get(event.getPotion().effect());
 			combatPotionEffect.onRemoved(entity, event.getPotion().amplifier(), version);
 			
-			//Delay update 1 tick because we need to have the removing effect removed
+			// Restore a weaker effect which was hidden by the removed effect
+			// Delayed because the effects of the entity can not be modified while Minestom removes expired effects
+			Potion hidden = CombatState.of(entity).getEffectTracker().remove(event.getPotion(), entity.getAliveTicks());
+			if (hidden != null) {
+				entity.scheduleNextTick(ignored -> {
+					if (!entity.hasEffect(hidden.effect())) entity.addEffect(hidden);
+				});
+			}
+			
+			// The update is done in the next tick, when the removed effect is no longer present
+			markVisibilityChanged(entity);
+		});
+	}
+	
+	private ActiveEffectRegistry getActiveEffectRegistry(Instance instance) {
+		ActiveEffectRegistry registry = instance.getTag(activeEffectRegistry);
+		if (registry != null) return registry;
+		return instance.updateAndGetTag(activeEffectRegistry, current ->
+				current == null ? new ActiveEffectRegistry(instance, this) : current);
+	}
+	
+	/**
+	 * Marks the potion visibility of an entity to be updated.
+	 * Updates are collected per instance and applied once per entity in the next tick.
+	 *
+	 * @param entity the entity
+	 */
+	protected void markVisibilityChanged(LivingEntity entity) {
+		Instance instance = entity.getInstance();
+		if (instance != null) {
+			getActiveEffectRegistry(instance).markVisibilityChanged(entity);
+		} else {
 			MinecraftServer.getSchedulerManager()
 					.buildTask(() -> updatePotionVisibility(entity))
 					.delay(1, TimeUnit.SERVER_TICK)
 					.schedule();
-		});
+		}
 	}
 	
-	private Map<PotionEffect, Integer> getDurationLeftMap(Entity entity) {
-		Map<PotionEffect, Integer> potionMap = entity.getTag(DURATION_LEFT);
-		if (potionMap == null) {
-			potionMap = new ConcurrentHashMap<>();
-			entity.setTag(DURATION_LEFT, potionMap);
+	private void scheduleEffect(LivingEntity entity, Instance instance, Potion potion, long startingTicks) {
+		int interval = getUpdateInterval(entity, potion);
+		if (interval <= 0) return;
+		
+		EffectTracker tracker = CombatState.of(entity).getEffectTracker();
+		int durationLeft = tracker.getDurationLeft(potion.effect(), entity.getAliveTicks());
+		if (durationLeft == EffectTracker.NONE) {
+			// The effect was added before this feature was listening
+			tracker.add(potion, startingTicks);
+			durationLeft = tracker.getDurationLeft(potion.effect(), entity.getAliveTicks());
 		}
-		return potionMap;
+		if (durationLeft <= 0) return;
+		
+		// The first update is at the first duration which is a multiple of the interval
+		int delay = tracker.getUpdateDuration(potion.effect(), entity.getAliveTicks()) % interval;
+		getActiveEffectRegistry(instance).schedule(entity, potion, delay);
+	}
+	
+	/**
+	 * Gets the interval at which the effect has to be updated.
+	 *
+	 * @param entity the entity which has the effect
+	 * @param potion the potion of the effect
+	 * @return the interval in ticks, or 0 if the effect does not need updates
+	 */
+	protected int getUpdateInterval(LivingEntity entity, Potion potion) {
+		// Absorption is removed once the player has no absorption hearts left
+		if (potion.effect() == PotionEffect.ABSORPTION && entity instanceof Player) return 1;
+		return CombatPotionEffects.get(potion.effect()).getApplyInterval(potion.amplifier());
+	}
+	
+	/**
+	 * Applies the update of an effect, called by the registry when the update is due.
+	 *
+	 * @param entity the entity which has the effect
+	 * @param potion the potion of the effect
+	 * @return the amount of ticks until the next update, or 0 if the effect does not need more updates
+	 */
+	protected int updateEffect(LivingEntity entity, Potion potion) {
+		EffectTracker tracker = CombatState.of(entity).getEffectTracker();
+		long tick = entity.getAliveTicks();
+		int durationLeft = tracker.getDurationLeft(potion.effect(), tick);
+		if (durationLeft <= 0) return 0;
+		
+		// Infinite effects have no duration left to time their updates with, so they use the ticks since they started
+		int duration = tracker.getUpdateDuration(potion.effect(), tick);
+		CombatPotionEffect combatPotionEffect = CombatPotionEffects.get(potion.effect());
+		if (combatPotionEffect.canApplyUpdateEffect(duration, potion.amplifier())) {
+			combatPotionEffect.applyUpdateEffect(entity, potion.amplifier(), exhaustionFeature, foodFeature);
+		}
+		
+		if (potion.effect() == PotionEffect.ABSORPTION && entity instanceof Player player && player.getAdditionalHearts() <= 0) {
+			player.removeEffect(PotionEffect.ABSORPTION);
+			return 0;
+		}
+		
+		int interval = getUpdateInterval(entity, potion);
+		if (interval <= 0) return 0;
+		
+		// Next duration which is a multiple of the interval, if the effect still lasts until then
+		int delay = duration % interval == 0 ? interval : duration % interval;
+		return delay < durationLeft ? delay : 0;
 	}
 	
 	@Override
@@ -148,12 +241,30 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 		} else if (contents.equals(PotionContents.EMPTY)) {
 			return DEFAULT_POTION_COLOR;
 		} else {
-			Collection<Potion> effects = getAllPotions(contents);
-			int color = PotionColorUtils.getPotionColor(effects);
-			return color == -1 ? DEFAULT_POTION_COLOR : color;
+			return resolvePotions(contents).color();
 		}
 	}
 	
+	@Override
+	public List<Potion> getAllPotions(@Nullable PotionContents potionContents) {
+		if (potionContents == null) return List.of();
+		return resolvePotions(potionContents).potions();
+	}
+	
+	private ResolvedPotions resolvePotions(PotionContents contents) {
+		ResolvedPotions resolved = resolvedPotions.get(contents);
+		if (resolved != null) return resolved;
+		
+		List<Potion> potions = List.copyOf(getAllPotions(contents.potion(), contents.customEffects()));
+		int color = PotionColorUtils.getPotionColor(potions);
+		resolved = new ResolvedPotions(potions, color == -1 ? DEFAULT_POTION_COLOR : color);
+		
+		// Servers rarely use enough distinct potion contents for the cache to fill up
+		if (resolvedPotions.size() >= RESOLVED_POTIONS_CACHE_SIZE) resolvedPotions.clear();
+		resolvedPotions.put(contents, resolved);
+		return resolved;
+	}
+	
 	@Override
 	public List<Potion> getAllPotions(PotionType potionType,
 	                                  Collection<net.minestom.server.potion.CustomPotionEffect> customEffects) {
@@ -193,7 +304,7 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 				invisible = false;
 			} else {
 				ambient = true;
-				particles = new ArrayList<>();
+				particles = new ArrayList<>(effects.size());
 				
 				for (TimedPotion potion : effects) {
 					if (!potion.potion().isAmbient()) {
@@ -210,14 +321,24 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 			}
 		}
 		
+		if (!CombatEventHandles.POTION_VISIBILITY.hasListener()) {
+			applyPotionVisibility(entity, ambient, particles, invisible);
+			return;
+		}
+		
 		PotionVisibilityEvent potionVisibilityEvent = new PotionVisibilityEvent(entity, ambient, particles, invisible);
-		EventDispatcher.callCancellable(potionVisibilityEvent, () -> {
-			LivingEntityMeta meta = (LivingEntityMeta) entity.getEntityMeta();
-			
-			meta.setPotionEffectAmbient(potionVisibilityEvent.isAmbient());
-			meta.setEffectParticles(potionVisibilityEvent.getParticles());
-			meta.setInvisible(potionVisibilityEvent.isInvisible());
-		});
+		CombatEventHandles.POTION_VISIBILITY.callCancellable(potionVisibilityEvent, () -> applyPotionVisibility(entity,
+				potionVisibilityEvent.isAmbient(), potionVisibilityEvent.getParticles(), potionVisibilityEvent.isInvisible()));
+	}
+	
+	private static void applyPotionVisibility(LivingEntity entity, boolean ambient,
+	                                          List<Particle> particles, boolean invisible) {
+		LivingEntityMeta meta = (LivingEntityMeta) entity.getEntityMeta();
+		
+		// Only write the values which changed, every write sends the metadata to the viewers
+		if (meta.isPotionEffectAmbient() != ambient) meta.setPotionEffectAmbient(ambient);
+		if (!particles.equals(meta.getEffectParticles())) meta.setEffectParticles(particles);
+		if (meta.isInvisible() != invisible) meta.setInvisible(invisible);
 	}
 	
 	@Override
@@ -279,4 +400,6 @@ public class VanillaEffectFeature implements EffectFeature, RegistrableFeature {
 			}
 		}
 	}
+	
+	private record ResolvedPotions(List<Potion> potions, int color) {}
 }
@@ -3,6 +3,7 @@ package io.github.togar2.pvp.feature.enchantment;
 import io.github.togar2.pvp.enchantment.CombatEnchantment;
 import io.github.togar2.pvp.enchantment.CombatEnchantments;
 import io.github.togar2.pvp.enchantment.EntityGroup;
+import io.github.togar2.pvp.entity.state.CombatState;
 import io.github.togar2.pvp.enums.ArmorMaterial;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.RegistrableFeature;
@@ -23,7 +24,6 @@ import net.minestom.server.registry.DynamicRegistry;
 
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 
@@ -66,15 +66,7 @@ public class VanillaEnchantmentFeature implements EnchantmentFeature, Registrabl
 	
 	@Override
 	public int getEquipmentLevel(LivingEntity entity, DynamicRegistry.Key<Enchantment> enchantment) {
-		Iterator<ItemStack> iterator = CombatEnchantments.get(enchantment).getEquipment(entity).values().iterator();
-		
-		int total = 0;
-		while (iterator.hasNext()) {
-			ItemStack itemStack = iterator.next();
-			total += itemStack.get(DataComponents.ENCHANTMENTS).level(enchantment);
-		}
-		
-		return total;
+		return CombatState.of(entity).getEnchantmentSummary().getLevel(enchantment);
 	}
 	
 	@Override
@@ -98,18 +90,11 @@ public class VanillaEnchantmentFeature implements EnchantmentFeature, Registrabl
 	
 	@Override
 	public int getProtectionAmount(LivingEntity entity, DamageType damageType) {
-		AtomicInteger result = new AtomicInteger();
-		
-		List<ItemStack> armorItems = new ArrayList<>();
-		for (EquipmentSlot slot : EquipmentSlot.armors()) {
-			if (slot.isArmor() && !entity.getEquipment(slot).isAir()) {
-				armorItems.add(entity.getEquipment(slot));
-			}
-		}
-		
-		forEachEnchantment(armorItems, (enchantment, level) ->
-				result.addAndGet(enchantment.getProtectionAmount(level, damageType, this, configuration)));
-		return result.get();
+		int[] result = new int[1];
+		CombatState.of(entity).getEnchantmentSummary().forEach((slot, enchantment, level) -> {
+			if (slot.isArmor()) result[0] += enchantment.getProtectionAmount(level, damageType, this, configuration);
+		});
+		return result[0];
 	}
 	
 	@Override
@@ -167,19 +152,24 @@ public class VanillaEnchantmentFeature implements EnchantmentFeature, Registrabl
 	
 	@Override
 	public void onUserDamaged(LivingEntity user, LivingEntity attacker) {
-		forEachEnchantment(Arrays.asList(
-				user.getBoots(), user.getLeggings(),
-				user.getChestplate(), user.getHelmet(),
-				user.getItemInMainHand(), user.getItemInOffHand()
-		), (enchantment, level) -> enchantment.onUserDamaged(user, attacker, level, this, configuration));
+		CombatState.of(user).getEnchantmentSummary().forEachUserDamaged((slot, enchantment, level) -> {
+			if (isHandOrHumanoidArmor(slot))
+				enchantment.onUserDamaged(user, attacker, level, this, configuration);
+		});
 	}
 	
 	@Override
 	public void onTargetDamaged(LivingEntity user, Entity target) {
-		forEachEnchantment(Arrays.asList(
-				user.getBoots(), user.getLeggings(),
-				user.getChestplate(), user.getHelmet(),
-				user.getItemInMainHand(), user.getItemInOffHand()
-		), (enchantment, level) -> enchantment.onTargetDamaged(user, target, level, this, configuration));
+		CombatState.of(user).getEnchantmentSummary().forEachTargetDamaged((slot, enchantment, level) -> {
+			if (isHandOrHumanoidArmor(slot))
+				enchantment.onTargetDamaged(user, target, level, this, configuration);
+		});
+	}
+	
+	private static boolean isHandOrHumanoidArmor(EquipmentSlot slot) {
+		return switch (slot) {
+			case MAIN_HAND, OFF_HAND, BOOTS, LEGGINGS, CHESTPLATE, HELMET -> true;
+			default -> false;
+		};
 	}
 }
@@ -3,6 +3,7 @@ package io.github.togar2.pvp.feature.explosion;
 import io.github.togar2.pvp.events.ExplosionEvent;
 import io.github.togar2.pvp.feature.enchantment.EnchantmentFeature;
 import io.github.togar2.pvp.player.CombatPlayer;
+import io.github.togar2.pvp.utils.AreaDamage;
 import net.kyori.adventure.nbt.CompoundBinaryTag;
 import net.minestom.server.ServerFlag;
 import net.minestom.server.collision.BoundingBox;
@@ -115,18 +116,17 @@ public final class VanillaExplosionSupplier implements ExplosionSupplier {
 				int minZ = Math.min(minZ_, maxZ_);
 				int maxZ = Math.max(minZ_, maxZ_);
 				
-				BoundingBox explosionBox = new BoundingBox(
-						maxX - minX,
-						maxY - minY,
-						maxZ - minZ
-				);
-				
 				Vec centerPoint = new Vec(getCenterX(), getCenterY(), getCenterZ());
 				
-				Vec src = centerPoint.sub(0, explosionBox.height() / 2, 0);
-				List<Entity> entities = new ArrayList<>(instance.getEntities().stream()
-						.filter(entity -> explosionBox.intersectEntity(src, entity))
-						.toList());
+				double halfWidth = (maxX - minX) / 2.0;
+				double halfHeight = (maxY - minY) / 2.0;
+				double halfDepth = (maxZ - minZ) / 2.0;
+				List<Entity> entities = AreaDamage.query(
+						instance,
+						getCenterX() - halfWidth, getCenterY() - halfHeight, getCenterZ() - halfDepth,
+						getCenterX() + halfWidth, getCenterY() + halfHeight, getCenterZ() + halfDepth,
+						Entity.class, entity -> true
+				);
 				
 				boolean anchor = false;
 				if (additionalData != null && additionalData.keySet().contains("anchor")) {
@@ -145,50 +145,51 @@ public final class VanillaExplosionSupplier implements ExplosionSupplier {
 				ExplosionEvent explosionEvent = new ExplosionEvent(instance, blocks, entities, damageObj);
 				EventDispatcher.call(explosionEvent);
 				if (explosionEvent.isCancelled()) return null;
-				damageObj = explosionEvent.getDamageObject();
+				Damage damage = explosionEvent.getDamageObject();
 				
-				for (Entity entity : entities) {
+				AreaDamage.apply(entities, entity -> {
 					double currentStrength = entity.getPosition().distance(centerPoint) / strength;
-					if (currentStrength <= 1.0D) {
-						double dx = entity.getPosition().x() - this.getCenterX();
-						double dy = (entity.getEntityType() == EntityType.TNT ? entity.getPosition().y() :
-								entity.getPosition().y() + entity.getEyeHeight()) - this.getCenterY();
-						double dz = entity.getPosition().z() - this.getCenterZ();
-						double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
-						if (distance != 0.0D) {
-							dx /= distance;
-							dy /= distance;
-							dz /= distance;
-							double exposure = getExposure(centerPoint, entity);
-							currentStrength = (1.0D - currentStrength) * exposure;
-							damageObj.setAmount((float) ((currentStrength * currentStrength + currentStrength)
-									/ 2.0D * 7.0D * strength + 1.0D));
-							double knockback = currentStrength;
-							if (entity instanceof LivingEntity living) {
-								if (!living.damage(damageObj)) continue;
-								knockback = enchantmentFeature.getExplosionKnockback(living, currentStrength);
-							}
-							
-							Vec knockbackVec = new Vec(
-									dx * knockback,
-									dy * knockback,
-									dz * knockback
-							);
+					if (currentStrength > 1.0D) return false;
+					
+					double dx = entity.getPosition().x() - this.getCenterX();
+					double dy = (entity.getEntityType() == EntityType.TNT ? entity.getPosition().y() :
+							entity.getPosition().y() + entity.getEyeHeight()) - this.getCenterY();
+					double dz = entity.getPosition().z() - this.getCenterZ();
+					double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
+					if (distance == 0.0D) return false;
+					
+					dx /= distance;
+					dy /= distance;
+					dz /= distance;
+					double exposure = getExposure(centerPoint, entity);
+					currentStrength = (1.0D - currentStrength) * exposure;
+					damage.setAmount((float) ((currentStrength * currentStrength + currentStrength)
+							/ 2.0D * 7.0D * strength + 1.0D));
+					double knockback = currentStrength;
+					if (entity instanceof LivingEntity living) {
+						if (!living.damage(damage)) return false;
+						knockback = enchantmentFeature.getExplosionKnockback(living, currentStrength);
+					}
+					
+					Vec knockbackVec = new Vec(
+							dx * knockback,
+							dy * knockback,
+							dz * knockback
+					);
+					
+					int tps = ServerFlag.SERVER_TICKS_PER_SECOND;
+					if (entity instanceof Player player) {
+						if (!player.getGameMode().invulnerable() && !player.isFlying()) {
+							playerKnockback.put(player, knockbackVec);
 							
-							int tps = ServerFlag.SERVER_TICKS_PER_SECOND;
-							if (entity instanceof Player player) {
-								if (!player.getGameMode().invulnerable() && !player.isFlying()) {
-									playerKnockback.put(player, knockbackVec);
-									
-									if (player instanceof CombatPlayer custom)
-										custom.setVelocityNoUpdate(velocity -> velocity.add(knockbackVec.mul(tps)));
-								}
-							} else {
-								entity.setVelocity(entity.getVelocity().add(knockbackVec.mul(tps)));
-							}
+							if (player instanceof CombatPlayer custom)
+								custom.setVelocityNoUpdate(velocity -> velocity.add(knockbackVec.mul(tps)));
 						}
+					} else {
+						entity.setVelocity(entity.getVelocity().add(knockbackVec.mul(tps)));
 					}
-				}
+					return true;
+				});
 				
 				return blocks;
 			}
@@ -1,5 +1,6 @@
 package io.github.togar2.pvp.feature.fall;
 
+import io.github.togar2.pvp.entity.state.CombatState;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.RegistrableFeature;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
@@ -37,6 +38,11 @@ public class VanillaFallFeature implements FallFeature, RegistrableFeature {
 			FeatureType.PLAYER_STATE
 	);
 	
+	/**
+	 * @deprecated the value is stored in {@link CombatState}, this tag is only used when {@link CombatState#setTagCompatibility(boolean)} is enabled.
+ * Otherwise changes to it are ignored, and it is not saved with the entity
+	 */
+	@Deprecated
 	public static final Tag<Double> FALL_DISTANCE = Tag.Transient("fallDistance");
 	public static final Tag<Boolean> EXTRA_FALL_PARTICLES = Tag.Transient("extraFallParticles");
 	
@@ -54,7 +60,7 @@ public class VanillaFallFeature implements FallFeature, RegistrableFeature {
 	}
 	
 	public static void initPlayer(Player player, boolean firstInit) {
-		player.setTag(FALL_DISTANCE, 0.0);
+		CombatState.of(player).setFallDistance(0);
 	}
 	
 	@Override
@@ -71,7 +77,7 @@ public class VanillaFallFeature implements FallFeature, RegistrableFeature {
 		// For players, handle fall damage on move event
 		node.addListener(PlayerMoveEvent.class, event -> {
 			Player player = event.getPlayer();
-			if (playerStateFeature.isClimbing(player)) player.setTag(FALL_DISTANCE, 0.0);
+			if (playerStateFeature.isClimbing(player)) CombatState.of(player).setFallDistance(0);
 			
 			handleFallDamage(
 					player, player.getPosition(),
@@ -82,22 +88,23 @@ public class VanillaFallFeature implements FallFeature, RegistrableFeature {
 	
 	public void handleFallDamage(LivingEntity entity, Pos currPos, Pos newPos, boolean onGround) {
 		double dy = newPos.y() - currPos.y();
-		double fallDistance = getFallDistance(entity);
+		CombatState state = CombatState.of(entity);
+		double fallDistance = state.getFallDistance();
 		
 		if ((entity instanceof Player player && player.isFlying())
 				|| entity.hasEffect(PotionEffect.LEVITATION)
 				|| entity.hasEffect(PotionEffect.SLOW_FALLING) || dy > 0) {
-			entity.setTag(FALL_DISTANCE, 0.0);
+			state.setFallDistance(0);
 			return;
 		}
 		
 		if (entity.isFlyingWithElytra() && entity.getVelocity().y() > -0.5) {
-			entity.setTag(FALL_DISTANCE, 1.0);
+			state.setFallDistance(1);
 			return;
 		}
 		
 		if (!onGround) {
-			if (dy < 0) entity.setTag(FALL_DISTANCE, fallDistance - dy);
+			if (dy < 0) state.setFallDistance(fallDistance - dy);
 			return;
 		}
 		
@@ -135,7 +142,7 @@ public class VanillaFallFeature implements FallFeature, RegistrableFeature {
 			}
 		}
 		
-		entity.setTag(FALL_DISTANCE, 0.0);
+		state.setFallDistance(0);
 		
 		if (entity instanceof Player player && player.getGameMode().invulnerable()) return;
 		int damage = getFallDamage(entity, fallDistance);
@@ -165,12 +172,12 @@ public class VanillaFallFeature implements FallFeature, RegistrableFeature {
 	
 	@Override
 	public double getFallDistance(LivingEntity entity) {
-		return entity.hasTag(FALL_DISTANCE) ? entity.getTag(FALL_DISTANCE) : 0.0;
+		return CombatState.of(entity).getFallDistance();
 	}
 	
 	@Override
 	public void resetFallDistance(LivingEntity entity) {
-		entity.setTag(FALL_DISTANCE, 0.0);
+		CombatState.of(entity).setFallDistance(0);
 	}
 	
 	@Override
@@ -1,5 +1,7 @@
 package io.github.togar2.pvp.feature.food;
 
+import io.github.togar2.pvp.entity.state.CombatState;
+import io.github.togar2.pvp.events.CombatEventHandles;
 import io.github.togar2.pvp.events.PlayerExhaustEvent;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.RegistrableFeature;
@@ -9,7 +11,6 @@ import io.github.togar2.pvp.feature.provider.DifficultyProvider;
 import io.github.togar2.pvp.utils.CombatVersion;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.damage.DamageType;
-import net.minestom.server.event.EventDispatcher;
 import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.PlayerBlockBreakEvent;
 import net.minestom.server.event.player.PlayerMoveEvent;
@@ -31,6 +32,11 @@ public class VanillaExhaustionFeature implements ExhaustionFeature, RegistrableF
 			FeatureType.DIFFICULTY, FeatureType.VERSION
 	);
 	
+	/**
+	 * @deprecated the value is stored in {@link CombatState}, this tag is only used when {@link CombatState#setTagCompatibility(boolean)} is enabled.
+ * Otherwise changes to it are ignored, and it is not saved with the entity
+	 */
+	@Deprecated
 	public static final Tag<Float> EXHAUSTION = Tag.Float("exhaustion");
 	
 	private final FeatureConfiguration configuration;
@@ -49,7 +55,7 @@ public class VanillaExhaustionFeature implements ExhaustionFeature, RegistrableF
 	}
 	
 	public static void initPlayer(Player player, boolean firstInit) {
-		player.setTag(EXHAUSTION, 0.0f);
+		CombatState.of(player).setExhaustion(0);
 	}
 	
 	@Override
@@ -65,9 +71,10 @@ public class VanillaExhaustionFeature implements ExhaustionFeature, RegistrableF
 	protected void onTick(Player player) {
 		if (player.getGameMode().invulnerable()) return;
 		
-		float exhaustion = player.getTag(EXHAUSTION);
+		CombatState state = CombatState.of(player);
+		float exhaustion = state.getExhaustion();
 		if (exhaustion > 4) {
-			player.setTag(EXHAUSTION, exhaustion - 4);
+			state.setExhaustion(exhaustion - 4);
 			if (player.getFoodSaturation() > 0) {
 				player.setFoodSaturation(Math.max(player.getFoodSaturation() - 1, 0));
 			} else if (difficultyFeature.getValue(player) != Difficulty.PEACEFUL) {
@@ -106,9 +113,19 @@ public class VanillaExhaustionFeature implements ExhaustionFeature, RegistrableF
 	@Override
 	public void addExhaustion(Player player, float exhaustion) {
 		if (player.getGameMode().invulnerable()) return;
+		if (!CombatEventHandles.PLAYER_EXHAUST.hasListener()) {
+			applyExhaustion(player, exhaustion);
+			return;
+		}
+		
 		PlayerExhaustEvent playerExhaustEvent = new PlayerExhaustEvent(player, exhaustion);
-		EventDispatcher.callCancellable(playerExhaustEvent, () -> player.setTag(EXHAUSTION,
-				Math.min(player.getTag(EXHAUSTION) + playerExhaustEvent.getAmount(), 40)));
+		CombatEventHandles.PLAYER_EXHAUST.callCancellable(playerExhaustEvent,
+				() -> applyExhaustion(player, playerExhaustEvent.getAmount()));
+	}
+	
+	private static void applyExhaustion(Player player, float exhaustion) {
+		CombatState state = CombatState.of(player);
+		state.setExhaustion(Math.min(state.getExhaustion() + exhaustion, 40));
 	}
 	
 	@Override
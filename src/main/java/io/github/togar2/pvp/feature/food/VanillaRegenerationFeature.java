@@ -1,5 +1,7 @@
 package io.github.togar2.pvp.feature.food;
 
+import io.github.togar2.pvp.entity.state.CombatState;
+import io.github.togar2.pvp.events.CombatEventHandles;
 import io.github.togar2.pvp.events.PlayerRegenerateEvent;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.RegistrableFeature;
@@ -10,7 +12,6 @@ import io.github.togar2.pvp.utils.CombatVersion;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.attribute.Attribute;
 import net.minestom.server.entity.damage.DamageType;
-import net.minestom.server.event.EventDispatcher;
 import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.PlayerTickEvent;
 import net.minestom.server.event.trait.EntityInstanceEvent;
@@ -27,6 +28,11 @@ public class VanillaRegenerationFeature implements RegenerationFeature, Registra
 			FeatureType.EXHAUSTION, FeatureType.DIFFICULTY, FeatureType.VERSION
 	);
 	
+	/**
+	 * @deprecated the value is stored in {@link CombatState}, this tag is only used when {@link CombatState#setTagCompatibility(boolean)} is enabled.
+ * Otherwise changes to it are ignored, and it is not saved with the entity
+	 */
+	@Deprecated
 	public static final Tag<Integer> STARVATION_TICKS = Tag.Integer("starvationTicks");
 	
 	private final FeatureConfiguration configuration;
@@ -47,7 +53,7 @@ public class VanillaRegenerationFeature implements RegenerationFeature, Registra
 	}
 	
 	public static void initPlayer(Player player, boolean firstInit) {
-		player.setTag(STARVATION_TICKS, 0);
+		CombatState.of(player).setStarvationTicks(0);
 	}
 	
 	@Override
@@ -61,7 +67,8 @@ public class VanillaRegenerationFeature implements RegenerationFeature, Registra
 		
 		int food = player.getFood();
 		float health = player.getHealth();
-		int starvationTicks = player.getTag(STARVATION_TICKS);
+		CombatState state = CombatState.of(player);
+		int starvationTicks = state.getStarvationTicks();
 		
 		if (version.modern() && player.getFoodSaturation() > 0 && health > 0
 				&& health < player.getAttributeValue(Attribute.MAX_HEALTH) && food >= 20) {
@@ -92,15 +99,23 @@ public class VanillaRegenerationFeature implements RegenerationFeature, Registra
 			starvationTicks = 0;
 		}
 		
-		player.setTag(STARVATION_TICKS, starvationTicks);
+		state.setStarvationTicks(starvationTicks);
 	}
 	
 	@Override
 	public void regenerate(Player player, float health, float exhaustion) {
+		if (!CombatEventHandles.PLAYER_REGENERATE.hasListener()) {
+			applyRegeneration(player, health, exhaustion);
+			return;
+		}
+		
 		PlayerRegenerateEvent event = new PlayerRegenerateEvent(player, health, exhaustion);
-		EventDispatcher.callCancellable(event, () -> {
-			player.setHealth(player.getHealth() + event.getAmount());
-			exhaustionFeature.addExhaustion(player, event.getExhaustion());
-		});
+		CombatEventHandles.PLAYER_REGENERATE.callCancellable(event,
+				() -> applyRegeneration(player, event.getAmount(), event.getExhaustion()));
+	}
+	
+	private void applyRegeneration(Player player, float health, float exhaustion) {
+		player.setHealth(player.getHealth() + health);
+		exhaustionFeature.addExhaustion(player, exhaustion);
 	}
 }
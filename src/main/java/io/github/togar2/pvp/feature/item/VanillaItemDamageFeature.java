@@ -2,6 +2,7 @@ package io.github.togar2.pvp.feature.item;
 
 import io.github.togar2.pvp.damage.DamageTypeInfo;
 import io.github.togar2.pvp.enums.ArmorMaterial;
+import io.github.togar2.pvp.events.CombatEventHandles;
 import io.github.togar2.pvp.events.EquipmentDamageEvent;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
@@ -11,7 +12,6 @@ import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.EquipmentSlot;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.damage.DamageType;
-import net.minestom.server.event.EventDispatcher;
 import net.minestom.server.component.DataComponents;
 import net.minestom.server.item.ItemStack;
 
@@ -76,10 +76,19 @@ public class VanillaItemDamageFeature implements ItemDamageFeature {
 	
 	@Override
 	public void damageEquipment(LivingEntity entity, EquipmentSlot slot, int amount) {
+		if (!CombatEventHandles.EQUIPMENT_DAMAGE.hasListener()) {
+			applyEquipmentDamage(entity, slot, amount);
+			return;
+		}
+		
 		EquipmentDamageEvent equipmentDamageEvent = new EquipmentDamageEvent(entity, slot, amount);
-		EventDispatcher.callCancellable(equipmentDamageEvent, () ->
-				entity.setEquipment(slot, damage(entity.getEquipment(slot), amount, entity,
-						e -> triggerEquipmentBreak(e, slot))));
+		CombatEventHandles.EQUIPMENT_DAMAGE.callCancellable(equipmentDamageEvent,
+				() -> applyEquipmentDamage(entity, slot, amount));
+	}
+	
+	private void applyEquipmentDamage(LivingEntity entity, EquipmentSlot slot, int amount) {
+		entity.setEquipment(slot, damage(entity.getEquipment(slot), amount, entity,
+				e -> triggerEquipmentBreak(e, slot)));
 	}
 	
 	@Override
@@ -1,18 +1,19 @@
 package io.github.togar2.pvp.feature.knockback;
 
+import io.github.togar2.pvp.entity.state.MovementHistory;
 import io.github.togar2.pvp.events.EntityKnockbackEvent;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.player.CombatPlayer;
+import io.github.togar2.pvp.utils.GroundPrediction;
 import net.minestom.server.ServerFlag;
 import net.minestom.server.collision.Aerodynamics;
 import net.minestom.server.coordinate.Vec;
-import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.instance.block.Block;
-import org.jetbrains.annotations.Nullable;
+import net.minestom.server.potion.PotionEffect;
 
 /**
  * Extension of {@link VanillaKnockbackFeature} which tries to make the playing field more even for players with high latency.
@@ -26,6 +27,9 @@ import org.jetbrains.annotations.Nullable;
  * possibly making falling knockback feel more natural.
  * <p>
  * The changes made by this feature only apply to players with more than 25 ms ping.
+ * <p>
+ * Whether the player will be on the ground is predicted using {@link GroundPrediction},
+ * so its cost does not grow with the latency of the player.
  */
 public class FairKnockbackFeature extends VanillaKnockbackFeature {
 	/**
@@ -52,61 +56,90 @@ public class FairKnockbackFeature extends VanillaKnockbackFeature {
 		this.compensateFallKnockback = compensateFallKnockback;
 	}
 	
+	public FairKnockbackFeature(FeatureConfiguration configuration, KnockbackProfile defaultProfile,
+	                            boolean compensateFallKnockback) {
+		super(configuration, defaultProfile);
+		this.compensateFallKnockback = compensateFallKnockback;
+	}
+	
 	@Override
-	protected boolean applyKnockback(LivingEntity target, Entity attacker, @Nullable Entity source,
-	                                 EntityKnockbackEvent.KnockbackType type, int extraKnockback,
-	                                 double dx, double dz, boolean legacy) {
-		if (!(target instanceof Player player) || player.getLatency() < PING_OFFSET)
-			return super.applyKnockback(target, attacker, source, type, extraKnockback, dx, dz, legacy);
-		
-		KnockbackValues values = prepareKnockback(target, attacker, source, type, extraKnockback, dx, dz, legacy);
-		if (values == null) return false;
+	protected void applyKnockbackVelocity(LivingEntity target, EntityKnockbackEvent.KnockbackType type, boolean legacy,
+	                                      double horizontalX, double horizontalZ, double vertical, double verticalLimit) {
+		if (!(target instanceof Player player) || player.getLatency() < PING_OFFSET
+				|| (legacy && type == EntityKnockbackEvent.KnockbackType.ATTACK)) {
+			// For legacy attack knockback, the velocity is not changed based on whether the player is on the ground
+			super.applyKnockbackVelocity(target, type, legacy, horizontalX, horizontalZ, vertical, verticalLimit);
+			return;
+		}
 		
+		// For modern versions and legacy non-attack knockback, the velocity is first divided by 2
 		Vec velocity = target.getVelocity();
-		if (legacy && type == EntityKnockbackEvent.KnockbackType.ATTACK) {
-			// For legacy versions, extra knockback is added directly on top of the original velocity
-			target.setVelocity(velocity.add(
-					-values.horizontalModifier().x(),
-					values.vertical(),
-					-values.horizontalModifier().z()
-			));
+		int latencyTicks = getLatencyTicks(player.getLatency());
+		double newVertical;
+		if (isOnGroundClientSide(player, latencyTicks)) {
+			newVertical = Math.min(verticalLimit, velocity.y() / 2d + vertical);
+		} else if (compensateFallKnockback) {
+			newVertical = getCompensatedVerticalVelocity(player.getAerodynamics(), velocity.y(), latencyTicks);
 		} else {
-			// For modern versions and legacy non-attack knockback, the velocity is first divided by 2
-			
-			int latencyTicks = getLatencyTicks(player.getLatency());
-			double vertical;
-			if (isOnGroundClientSide(player, latencyTicks)) {
-				vertical = Math.min(values.verticalLimit(), velocity.y() / 2d + values.vertical());
-			} else if (compensateFallKnockback) {
-				vertical = getCompensatedVerticalVelocity(player.getAerodynamics(), velocity.y(), latencyTicks);
-			} else {
-				vertical = velocity.y();
-			}
-			
-			target.setVelocity(new Vec(
-					velocity.x() / 2d - values.horizontalModifier().x(),
-					vertical,
-					velocity.z() / 2d - values.horizontalModifier().z()
-			));
+			newVertical = velocity.y();
 		}
 		
-		return true;
+		target.setVelocity(new Vec(
+				velocity.x() / 2d - horizontalX,
+				newVertical,
+				velocity.z() / 2d - horizontalZ
+		));
 	}
 	
 	protected boolean isOnGroundClientSide(Player player, int latencyTicks) {
-		if (player.isOnGround() || !(player instanceof CombatPlayer combatPlayer)) return true;
+		if (player.isOnGround() || !(player instanceof CombatPlayer)) return true;
 		if (player.getGravityTickCount() > 30) return false; // Very uncertain, default to false
 		
-		// These are all cases in which isOnGroundAfterTicks() will not be accurate
+		// These are all cases in which the ground prediction will not be accurate
 		Block block = player.getInstance().getBlock(player.getPosition());
 		if (player.isFlyingWithElytra()
+				|| player.isFlying()
+				|| player.getVehicle() != null
+				|| player.hasEffect(PotionEffect.LEVITATION)
 				|| block.compare(Block.WATER)
 				|| block.compare(Block.LAVA)
 				|| block.compare(Block.COBWEB)
 				|| block.compare(Block.SCAFFOLDING))
 			return false;
 		
-		return combatPlayer.isOnGroundAfterTicks(latencyTicks);
+		Aerodynamics aerodynamics = player.getAerodynamics();
+		double gravity = player.hasNoGravity() ? 0 : aerodynamics.gravity();
+		double velocity = getClientVerticalVelocity(player, gravity, aerodynamics.verticalAirResistance());
+		if (velocity < 0 && player.hasEffect(PotionEffect.SLOW_FALLING)) gravity = 0.01;
+		
+		return GroundPrediction.willLandWithin(
+				player.getPosition().y(), GroundPrediction.getGroundHeight(player),
+				velocity, gravity, aerodynamics.verticalAirResistance(), latencyTicks
+		);
+	}
+	
+	/**
+	 * Gets the vertical velocity (in blocks per tick) the player will have on the client in the next tick.
+	 * If the movement history of the player contains the last two ticks, the velocity is derived from the positions
+	 * the client reported. Otherwise, the server side velocity is used.
+	 *
+	 * @param player the player
+	 * @param gravity the gravity of the player
+	 * @param drag the vertical air resistance of the player
+	 * @return the vertical velocity of the player
+	 */
+	protected double getClientVerticalVelocity(Player player, double gravity, double drag) {
+		if (player instanceof CombatPlayer combatPlayer) {
+			MovementHistory history = combatPlayer.getCombatState().getMovementHistory();
+			if (history.size() >= 2
+					&& history.getTick(0) - history.getTick(1) == 1
+					&& player.getAliveTicks() - history.getTick(0) <= 1) {
+				double reportedVelocity = history.getY(0) - history.getY(1);
+				return (reportedVelocity - gravity) * drag;
+			}
+		}
+		
+		return player.getVelocity().y() / ServerFlag.SERVER_TICKS_PER_SECOND;
 	}
 	
 	/**
@@ -119,12 +152,7 @@ public class FairKnockbackFeature extends VanillaKnockbackFeature {
 	 * @return the compensated vertical velocity
 	 */
 	protected static double getCompensatedVerticalVelocity(Aerodynamics aerodynamics, double velocity, int ticks) {
-		for (int i = 0; i < ticks; i++) {
-			velocity -= aerodynamics.gravity();
-			velocity *= aerodynamics.verticalAirResistance();
-		}
-		
-		return velocity;
+		return GroundPrediction.getVelocityAfterTicks(velocity, aerodynamics.gravity(), aerodynamics.verticalAirResistance(), ticks);
 	}
 	
 	private static int getLatencyTicks(int latencyMillis) {
@@ -0,0 +1,94 @@
+package io.github.togar2.pvp.feature.knockback;
+
+/**
+ * A named, immutable set of {@link KnockbackSettings}.
+ * <p>
+ * The horizontal and vertical strength for every common amount of extra knockback is precomputed when the profile is created,
+ * so applying knockback from a profile only needs a table lookup.
+ * <p>
+ * Profiles can be registered in {@link KnockbackProfiles} to look them up by name,
+ * and can be selected for an instance using {@link VanillaKnockbackFeature#PROFILE}
+ * or for a single entity using {@link io.github.togar2.pvp.entity.state.CombatState#setKnockbackProfile(KnockbackProfile)}.
+ */
+public final class KnockbackProfile {
+	/**
+	 * The amount of extra knockback levels which are precomputed, higher levels are calculated when needed.
+	 */
+	public static final int TABLE_SIZE = 16;
+	
+	private final String name;
+	private final KnockbackSettings settings;
+	
+	private final double[] horizontal = new double[TABLE_SIZE];
+	private final double[] legacyVertical = new double[TABLE_SIZE];
+	private final double[] modernVertical = new double[TABLE_SIZE];
+	
+	public KnockbackProfile(String name, KnockbackSettings settings) {
+		this.name = name;
+		this.settings = settings;
+		
+		for (int extraKnockback = 0; extraKnockback < TABLE_SIZE; extraKnockback++) {
+			horizontal[extraKnockback] = calculateHorizontal(settings, extraKnockback);
+			legacyVertical[extraKnockback] = calculateVertical(settings, extraKnockback, true);
+			modernVertical[extraKnockback] = calculateVertical(settings, extraKnockback, false);
+		}
+	}
+	
+	public String getName() {
+		return name;
+	}
+	
+	public KnockbackSettings getSettings() {
+		return settings;
+	}
+	
+	/**
+	 * Gets the horizontal knockback strength, before knockback resistance is applied.
+	 *
+	 * @param extraKnockback the amount of extra knockback, 0 for default knockback
+	 * @return the horizontal strength
+	 */
+	public double getHorizontal(int extraKnockback) {
+		if (extraKnockback <= 0) return horizontal[0];
+		if (extraKnockback < TABLE_SIZE) return horizontal[extraKnockback];
+		return calculateHorizontal(settings, extraKnockback);
+	}
+	
+	/**
+	 * Gets the vertical knockback strength, before knockback resistance is applied.
+	 *
+	 * @param extraKnockback the amount of extra knockback, 0 for default knockback
+	 * @param legacy whether legacy knockback is used
+	 * @return the vertical strength
+	 */
+	public double getVertical(int extraKnockback, boolean legacy) {
+		double[] vertical = legacy ? legacyVertical : modernVertical;
+		if (extraKnockback <= 0) return vertical[0];
+		if (extraKnockback < TABLE_SIZE) return vertical[extraKnockback];
+		return calculateVertical(settings, extraKnockback, legacy);
+	}
+	
+	public double getVerticalLimit() {
+		return settings.verticalLimit();
+	}
+	
+	public static double calculateHorizontal(KnockbackSettings settings, int extraKnockback) {
+		if (extraKnockback <= 0) return settings.horizontal(); // Default knockback
+		return settings.extraHorizontal() * extraKnockback;
+	}
+	
+	public static double calculateVertical(KnockbackSettings settings, int extraKnockback, boolean legacy) {
+		if (extraKnockback <= 0) return settings.vertical(); // Default knockback
+		
+		// Extra knockback
+		double baseVertical = legacy ?
+				settings.extraVertical() : // Legacy: defaults to 0.1
+				settings.vertical() + settings.extraVertical(); // Modern: defaults to 0.1 + 0.4 = 0.5
+		return baseVertical * extraKnockback;
+	}
+	
+	@Override
+	public String toString() {
+		return "KnockbackProfile[name=" + name + ", settings=" + settings + "]";
+	}
+}
@@ -0,0 +1,41 @@
+package io.github.togar2.pvp.feature.knockback;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of named {@link KnockbackProfile}s.
+ * <p>
+ * Unlike the other registries, profiles can be registered at any time, for example when loading a configuration file.
+ */
+public class KnockbackProfiles {
+	private static final Map<String, KnockbackProfile> PROFILES = new ConcurrentHashMap<>();
+	
+	/**
+	 * The default profile, which uses {@link KnockbackSettings#DEFAULT}.
+	 */
+	public static final KnockbackProfile VANILLA = register(new KnockbackProfile("vanilla", KnockbackSettings.DEFAULT));
+	
+	public static @Nullable KnockbackProfile get(String name) {
+		return PROFILES.get(name);
+	}
+	
+	/**
+	 * Registers a profile. A profile which was registered before under the same name is replaced.
+	 *
+	 * @param profile the profile to register
+	 * @return the profile
+	 */
+	public static KnockbackProfile register(KnockbackProfile profile) {
+		PROFILES.put(profile.getName(), profile);
+		return profile;
+	}
+	
+	public static Collection<KnockbackProfile> values() {
+		return Collections.unmodifiableCollection(PROFILES.values());
+	}
+}
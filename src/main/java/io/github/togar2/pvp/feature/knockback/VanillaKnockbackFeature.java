@@ -1,11 +1,14 @@
 package io.github.togar2.pvp.feature.knockback;
 
+import io.github.togar2.pvp.entity.state.CombatState;
+import io.github.togar2.pvp.events.CombatEventHandles;
 import io.github.togar2.pvp.events.EntityKnockbackEvent;
 import io.github.togar2.pvp.feature.FeatureType;
 import io.github.togar2.pvp.feature.config.DefinedFeature;
 import io.github.togar2.pvp.feature.config.FeatureConfiguration;
 import io.github.togar2.pvp.player.CombatPlayer;
 import io.github.togar2.pvp.utils.CombatVersion;
+import io.github.togar2.pvp.utils.OverrideUtil;
 import net.minestom.server.coordinate.Vec;
 import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.LivingEntity;
@@ -13,13 +16,20 @@ import net.minestom.server.entity.Player;
 import net.minestom.server.entity.attribute.Attribute;
 import net.minestom.server.entity.damage.Damage;
 import net.minestom.server.event.EventDispatcher;
+import net.minestom.server.instance.Instance;
 import net.minestom.server.network.packet.server.play.HitAnimationPacket;
+import net.minestom.server.tag.Tag;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Vanilla implementation of {@link KnockbackFeature}
+ * <p>
+ * The strength of the knockback is taken from a {@link KnockbackProfile}. The profile of an entity is
+ * {@link CombatState#getKnockbackProfile()} if set, otherwise the profile in the {@link #PROFILE} tag of its instance,
+ * otherwise the default profile of this feature.
+ * {@link EntityKnockbackEvent} is only called if it has listeners, otherwise the precomputed values of the profile are used directly.
  */
 public class VanillaKnockbackFeature implements KnockbackFeature {
 	public static final DefinedFeature<VanillaKnockbackFeature> DEFINED = new DefinedFeature<>(
@@ -27,12 +37,41 @@ public class VanillaKnockbackFeature implements KnockbackFeature {
 			FeatureType.VERSION
 	);
 	
+	/**
+	 * Creates a definition of this feature which uses the given profile by default.
+	 *
+	 * @param profile the default knockback profile
+	 * @return the defined feature
+	 */
+	public static DefinedFeature<VanillaKnockbackFeature> withProfile(KnockbackProfile profile) {
+		return new DefinedFeature<>(
+				FeatureType.KNOCKBACK, configuration -> new VanillaKnockbackFeature(configuration, profile),
+				FeatureType.VERSION
+		);
+	}
+	
+	/**
+	 * The knockback profile of an instance, overriding the default profile of this feature.
+	 */
+	public static final Tag<KnockbackProfile> PROFILE = Tag.Transient("knockbackProfile");
+	
 	private final FeatureConfiguration configuration;
+	private final KnockbackProfile defaultProfile;
 	
 	private CombatVersion version;
 	
+	// Subclasses which still override prepareKnockback keep being called
+	private final boolean recordPrepareKnockback = OverrideUtil.isOverridden(getClass(), VanillaKnockbackFeature.class,
+			"prepareKnockback", LivingEntity.class, Entity.class, Entity.class, EntityKnockbackEvent.KnockbackType.class,
+			int.class, double.class, double.class, boolean.class);
+	
 	public VanillaKnockbackFeature(FeatureConfiguration configuration) {
+		this(configuration, KnockbackProfiles.VANILLA);
+	}
+	
+	public VanillaKnockbackFeature(FeatureConfiguration configuration, KnockbackProfile defaultProfile) {
 		this.configuration = configuration;
+		this.defaultProfile = defaultProfile;
 	}
 	
 	@Override
@@ -71,35 +110,46 @@ public class VanillaKnockbackFeature implements KnockbackFeature {
 		return true;
 	}
 	
+	/**
+	 * Gets the knockback profile which applies to the given entity.
+	 *
+	 * @param target the entity taking knockback
+	 * @return the knockback profile
+	 */
+	public KnockbackProfile getKnockbackProfile(LivingEntity target) {
+		KnockbackProfile profile = CombatState.of(target).getKnockbackProfile();
+		if (profile != null) return profile;
+		
+		Instance instance = target.getInstance();
+		if (instance != null) {
+			profile = instance.getTag(PROFILE);
+			if (profile != null) return profile;
+		}
+		
+		return defaultProfile;
+	}
+	
 	public record KnockbackValues(Vec horizontalModifier, double vertical, double verticalLimit) {}
 	
+	/**
+	 * @deprecated knockback is now applied without allocating these values,
+	 * see {@link #applyKnockback(LivingEntity, Entity, Entity, EntityKnockbackEvent.KnockbackType, int, double, double, boolean)}.
+	 * This method is still used to calculate the knockback if a subclass overrides it.
+	 */
+	@Deprecated
 	protected @Nullable KnockbackValues prepareKnockback(LivingEntity target, Entity attacker, @Nullable Entity source,
 	                                EntityKnockbackEvent.KnockbackType type, int extraKnockback,
 	                                double dx, double dz, boolean legacy) {
-		EntityKnockbackEvent knockbackEvent = new EntityKnockbackEvent(target, source == null ? attacker : source, type);
+		EntityKnockbackEvent knockbackEvent = new EntityKnockbackEvent(target, source == null ? attacker : source, type,
+				getKnockbackProfile(target).getSettings());
 		EventDispatcher.call(knockbackEvent);
 		if (knockbackEvent.isCancelled()) return null;
 		
 		KnockbackSettings settings = knockbackEvent.getSettings();
 		
 		double kbResistance = target.getAttributeValue(Attribute.KNOCKBACK_RESISTANCE);
-		double horizontal, vertical;
-		if (extraKnockback <= 0) {
-			// Default knockback
-			horizontal = settings.horizontal();
-			vertical = settings.vertical();
-		} else {
-			// Extra knockback
-			double baseVertical = legacy ?
-					settings.extraVertical() : // Legacy: defaults to 0.1
-					settings.vertical() + settings.extraVertical(); // Modern: defaults to 0.1 + 0.4 = 0.5
-			
-			horizontal = settings.extraHorizontal() * extraKnockback;
-			vertical = baseVertical * extraKnockback;
-		}
-		
-		horizontal *= (1 - kbResistance);
-		vertical *= (1 - kbResistance);
+		double horizontal = KnockbackProfile.calculateHorizontal(settings, extraKnockback) * (1 - kbResistance);
+		double vertical = KnockbackProfile.calculateVertical(settings, extraKnockback, legacy) * (1 - kbResistance);
 		if (horizontal <= 0 && vertical <= 0) return null;
 		
 		Vec horizontalModifier = new Vec(dx, dz).normalize().mul(horizontal);
@@ -109,27 +159,73 @@ public class VanillaKnockbackFeature implements KnockbackFeature {
 	protected boolean applyKnockback(LivingEntity target, Entity attacker, @Nullable Entity source,
 	                                 EntityKnockbackEvent.KnockbackType type, int extraKnockback,
 	                                 double dx, double dz, boolean legacy) {
-		KnockbackValues values = prepareKnockback(target, attacker, source, type, extraKnockback, dx, dz, legacy);
-		if (values == null) return false;
+		if (recordPrepareKnockback) {
+			KnockbackValues values = prepareKnockback(target, attacker, source, type, extraKnockback, dx, dz, legacy);
+			if (values == null) return false;
+			
+			applyKnockbackVelocity(target, type, legacy, values.horizontalModifier().x(), values.horizontalModifier().z(),
+					values.vertical(), values.verticalLimit());
+			return true;
+		}
+		
+		KnockbackProfile profile = getKnockbackProfile(target);
+		KnockbackSettings settings = profile.getSettings();
+		
+		if (CombatEventHandles.KNOCKBACK.hasListener()) {
+			EntityKnockbackEvent knockbackEvent = new EntityKnockbackEvent(target, source == null ? attacker : source, type, settings);
+			CombatEventHandles.KNOCKBACK.call(knockbackEvent);
+			if (knockbackEvent.isCancelled()) return false;
+			settings = knockbackEvent.getSettings();
+		}
+		
+		double horizontal, vertical;
+		if (settings == profile.getSettings()) {
+			horizontal = profile.getHorizontal(extraKnockback);
+			vertical = profile.getVertical(extraKnockback, legacy);
+		} else {
+			// Settings were changed by a listener
+			horizontal = KnockbackProfile.calculateHorizontal(settings, extraKnockback);
+			vertical = KnockbackProfile.calculateVertical(settings, extraKnockback, legacy);
+		}
 		
+		double kbResistance = target.getAttributeValue(Attribute.KNOCKBACK_RESISTANCE);
+		horizontal *= (1 - kbResistance);
+		vertical *= (1 - kbResistance);
+		if (horizontal <= 0 && vertical <= 0) return false;
+		
+		double length = Math.sqrt(dx * dx + dz * dz);
+		double horizontalX = length == 0 ? 0 : dx / length * horizontal;
+		double horizontalZ = length == 0 ? 0 : dz / length * horizontal;
+		
+		applyKnockbackVelocity(target, type, legacy, horizontalX, horizontalZ, vertical, settings.verticalLimit());
+		return true;
+	}
+	
+	/**
+	 * Applies the calculated knockback to the velocity of the target.
+	 *
+	 * @param target the entity taking knockback
+	 * @param type the type of knockback
+	 * @param legacy whether legacy knockback is used
+	 * @param horizontalX the x component of the horizontal knockback, pointing towards the attacker
+	 * @param horizontalZ the z component of the horizontal knockback, pointing towards the attacker
+	 * @param vertical the vertical knockback
+	 * @param verticalLimit the maximum vertical velocity after knockback
+	 */
+	protected void applyKnockbackVelocity(LivingEntity target, EntityKnockbackEvent.KnockbackType type, boolean legacy,
+	                                      double horizontalX, double horizontalZ, double vertical, double verticalLimit) {
 		Vec velocity = target.getVelocity();
 		if (legacy && type == EntityKnockbackEvent.KnockbackType.ATTACK) {
 			// For legacy versions, extra knockback is added directly on top of the original velocity
-			target.setVelocity(velocity.add(
-					-values.horizontalModifier().x(),
-					values.vertical(),
-					-values.horizontalModifier().z()
-			));
+			target.setVelocity(velocity.add(-horizontalX, vertical, -horizontalZ));
 		} else {
 			// For modern versions and legacy non-attack knockback, the velocity is first divided by 2
 			target.setVelocity(new Vec(
-					velocity.x() / 2d - values.horizontalModifier().x(),
-					target.isOnGround() ? Math.min(values.verticalLimit(), velocity.y() / 2d + values.vertical()) : velocity.y(),
-					velocity.z() / 2d - values.horizontalModifier().z()
+					velocity.x() / 2d - horizontalX,
+					target.isOnGround() ? Math.min(verticalLimit, velocity.y() / 2d + vertical) : velocity.y(),
+					velocity.z() / 2d - horizontalZ
 			));
 		}
-		
-		return true;
 	}
 	
 	@Override
@@ -1,8 +1,10 @@
 package io.github.togar2.pvp.player;
 
+import io.github.togar2.pvp.entity.state.CombatState;
 import net.minestom.server.ServerFlag;
 import net.minestom.server.coordinate.Pos;
 import net.minestom.server.coordinate.Vec;
+import net.minestom.server.entity.LivingEntity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.attribute.Attribute;
 import net.minestom.server.entity.attribute.AttributeInstance;
@@ -24,6 +26,7 @@ public interface CombatPlayer {
     /**
      * Does not guarantee anything, the implementation uses Minestom physics logic which does not take into account many edge cases.
      * It is also quite performance intensive, not suitable for calling often.
+     * {@link io.github.togar2.pvp.utils.GroundPrediction} is a cheaper estimate which does not simulate block collisions.
      * @param ticks the amount of ticks to test for
      * @return true if the player will likely be on the ground in the given amount of ticks
      */
@@ -57,6 +60,16 @@ public interface CombatPlayer {
     
     void sendImmediateVelocityUpdate();
     
+    /**
+     * Gets the combat state of this player, see {@link CombatState#of(LivingEntity)}.
+     * By default, the state is stored in a tag like for other entities. Implementations can override this to hold the state directly.
+     *
+     * @return the combat state of this player
+     */
+    default CombatState getCombatState() {
+        return CombatState.ofTag((LivingEntity) this);
+    }
+    
     static void init(EventNode<Event> node) {
         node.addListener(PlayerMoveEvent.class, event -> {
             Player player = event.getPlayer();
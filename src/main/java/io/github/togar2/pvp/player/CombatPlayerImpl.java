@@ -1,5 +1,6 @@
 package io.github.togar2.pvp.player;
 
+import io.github.togar2.pvp.entity.state.CombatState;
 import net.minestom.server.ServerFlag;
 import net.minestom.server.collision.Aerodynamics;
 import net.minestom.server.collision.PhysicsResult;
@@ -8,9 +9,12 @@ import net.minestom.server.coordinate.Pos;
 import net.minestom.server.coordinate.Vec;
 import net.minestom.server.entity.Player;
 import net.minestom.server.entity.attribute.Attribute;
+import net.minestom.server.entity.attribute.AttributeInstance;
 import net.minestom.server.event.EventDispatcher;
 import net.minestom.server.event.entity.EntityVelocityEvent;
 import net.minestom.server.instance.Chunk;
+import net.minestom.server.network.ConnectionState;
+import net.minestom.server.network.packet.server.play.EntityAttributesPacket;
 import net.minestom.server.network.player.GameProfile;
 import net.minestom.server.network.player.PlayerConnection;
 import net.minestom.server.potion.PotionEffect;
@@ -18,11 +22,21 @@ import net.minestom.server.potion.TimedPotion;
 import net.minestom.server.utils.chunk.ChunkUtils;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 public class CombatPlayerImpl extends Player implements CombatPlayer {
 	private boolean velocityUpdate = false;
 	private PhysicsResult previousPhysicsResult = null;
+	private final CombatState combatState = new CombatState(this);
+	
+	// Attributes changed during this tick, sent together at the end of the tick
+	// Concurrent, since attributes can be changed from any thread
+	private final Set<AttributeInstance> changedAttributes = ConcurrentHashMap.newKeySet();
 	
 	public CombatPlayerImpl(@NotNull PlayerConnection playerConnection, GameProfile profile) {
 		super(playerConnection, profile);
@@ -55,6 +69,57 @@ public class CombatPlayerImpl extends Player implements CombatPlayer {
 		}
 	}
 	
+	/**
+	 * Replaces the packet sent by {@link net.minestom.server.entity.LivingEntity} for every change,
+	 * the change is sent with the others in {@link #sendChangedAttributes()} instead.
+	 * The super method is not called, since sending the packet is all it does.
+	 */
+	@Override
+	protected void onAttributeChanged(@NotNull AttributeInstance attributeInstance) {
+		// Null while the super constructor runs, there is nobody to send the change to yet
+		// These changes are not lost: the attributes are sent with the spawn packets of the player
+		if (changedAttributes == null) return;
+		changedAttributes.add(attributeInstance);
+	}
+	
+	@Override
+	public void update(long time) {
+		super.update(time);
+		sendChangedAttributes();
+	}
+	
+	/**
+	 * Sends all attributes which changed since the last call in a single packet,
+	 * instead of sending a packet for every single change.
+	 * <p>
+	 * Like {@link net.minestom.server.entity.LivingEntity}, the packet is only sent to the player itself
+	 * once its connection is in the play state.
+	 */
+	private void sendChangedAttributes() {
+		if (changedAttributes.isEmpty()) return;
+		
+		List<EntityAttributesPacket.Property> properties = new ArrayList<>(changedAttributes.size());
+		Iterator<AttributeInstance> iterator = changedAttributes.iterator();
+		while (iterator.hasNext()) {
+			// Removed before reading, so a change made meanwhile by another thread is sent next tick
+			AttributeInstance instance = iterator.next();
+			iterator.remove();
+			properties.add(new EntityAttributesPacket.Property(instance.attribute(), instance.getBaseValue(), instance.getModifiers()));
+		}
+		
+		EntityAttributesPacket packet = new EntityAttributesPacket(getEntityId(), properties);
+		if (getPlayerConnection().getConnectionState() == ConnectionState.PLAY) {
+			sendPacketToViewersAndSelf(packet);
+		} else {
+			sendPacketToViewers(packet);
+		}
+	}
+	
+	@Override
+	public CombatState getCombatState() {
+		return combatState;
+	}
+	
 	public boolean isOnGroundAfterTicks(int ticks) {
 		if (vehicle != null) return false;
 		
@@ -94,6 +159,12 @@ public class CombatPlayerImpl extends Player implements CombatPlayer {
 	@Override
 	protected void movementTick() {
 		this.gravityTickCount = onGround ? 0 : gravityTickCount + 1;
+		
+		// Position and onGround are reported by the client, velocity is the server side estimate
+		combatState.getMovementHistory().record(getAliveTicks(),
+				position.x(), position.y(), position.z(),
+				velocity.x(), velocity.y(), velocity.z(), onGround);
+		
 		if (vehicle != null) return;
 		
 		final double tps = ServerFlag.SERVER_TICKS_PER_SECOND;
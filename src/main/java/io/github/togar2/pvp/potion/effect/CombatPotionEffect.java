@@ -31,12 +31,17 @@ public class CombatPotionEffect {
 	private final PotionEffect potionEffect;
 	private final Function<Potion, Particle> particleSupplier;
 	
+	// Subclasses which decide themselves when to apply updates need to be checked every tick
+	private final boolean customUpdateCondition = overridesCanApplyUpdateEffect();
+	
 	public CombatPotionEffect(PotionEffect potionEffect) {
 		this.potionEffect = potionEffect;
-		this.particleSupplier = potion -> {
-			int alpha = potion.isAmbient() ? 38 : 255;
-			return Particle.ENTITY_EFFECT.withColor(new AlphaColor(alpha, new Color(potion.effect().registry().color())));
-		};
+		
+		// The default particle only depends on the color of the effect, so it is created once
+		Color color = new Color(potionEffect.registry().color());
+		Particle particle = Particle.ENTITY_EFFECT.withColor(new AlphaColor(255, color));
+		Particle ambientParticle = Particle.ENTITY_EFFECT.withColor(new AlphaColor(38, color));
+		this.particleSupplier = potion -> potion.isAmbient() ? ambientParticle : particle;
 	}
 	
 	public CombatPotionEffect(PotionEffect potionEffect, Function<Potion, Particle> particleSupplier) {
@@ -44,6 +49,15 @@ public class CombatPotionEffect {
 		this.particleSupplier = particleSupplier;
 	}
 	
+	private boolean overridesCanApplyUpdateEffect() {
+		try {
+			return getClass().getMethod("canApplyUpdateEffect", int.class, int.class)
+					.getDeclaringClass() != CombatPotionEffect.class;
+		} catch (NoSuchMethodException e) {
+			return true;
+		}
+	}
+	
 	public PotionEffect getPotionEffect() {
 		return potionEffect;
 	}
@@ -152,6 +166,31 @@ public class CombatPotionEffect {
 		}
 	}
 	
+	/**
+	 * Gets the interval in ticks at which {@link #canApplyUpdateEffect(int, int)} can return true,
+	 * which is used to only check the effect when an update can be due.
+	 *
+	 * @param amplifier the amplifier of the effect
+	 * @return the interval in ticks, or 0 if the effect never applies an update
+	 */
+	public int getApplyInterval(int amplifier) {
+		if (customUpdateCondition) return 1;
+		if (isInstant() || potionEffect == PotionEffect.SATURATION || potionEffect == PotionEffect.HUNGER) return 1;
+		
+		int applyInterval;
+		if (potionEffect == PotionEffect.REGENERATION) {
+			applyInterval = 50 >> amplifier;
+		} else if (potionEffect == PotionEffect.POISON) {
+			applyInterval = 25 >> amplifier;
+		} else if (potionEffect == PotionEffect.WITHER) {
+			applyInterval = 40 >> amplifier;
+		} else {
+			return 0;
+		}
+		
+		return Math.max(applyInterval, 1);
+	}
+	
 	public boolean isInstant() {
 		return potionEffect.registry().isInstantaneous();
 	}
@@ -8,21 +8,99 @@ import net.minestom.server.potion.PotionEffect;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Registry of all combat potion effects.
+ * <p>
+ * Potion effects can only be registered during startup. The registry is frozen into an immutable map
+ * on the first lookup (or by calling {@link #freeze()}), after which it can safely be read from any thread.
+ * Lookups read from an array indexed by the id of the potion effect, which is created when freezing.
+ * Potion effects which were not registered get a default {@link CombatPotionEffect} without special behavior.
+ */
 public class CombatPotionEffects {
 	private static final Map<PotionEffect, CombatPotionEffect> POTION_EFFECTS = new HashMap<>();
+	private static volatile Map<PotionEffect, CombatPotionEffect> frozen;
+	private static volatile CombatPotionEffect[] byId;
+	// Defaults for potion effects which were not known when freezing, created once per effect
+	private static final Map<PotionEffect, CombatPotionEffect> UNKNOWN = new ConcurrentHashMap<>();
+	private static boolean registered = false;
 	
+	/**
+	 * Gets the combat potion effect of a potion effect, freezing the registry if it is not frozen yet.
+	 * <p>
+	 * This never returns null: a potion effect which was not registered gets a default {@link CombatPotionEffect}
+	 * without special behavior. Earlier versions returned null for such potion effects,
+	 * use {@link #isRegistered(PotionEffect)} to check whether a potion effect has registered behavior.
+	 *
+	 * @param potionEffect the potion effect
+	 * @return the registered combat potion effect, or the default for the potion effect if none was registered
+	 */
 	public static CombatPotionEffect get(PotionEffect potionEffect) {
-		return POTION_EFFECTS.get(potionEffect);
+		CombatPotionEffect[] potionEffects = byId;
+		if (potionEffects == null) {
+			freeze();
+			potionEffects = byId;
+		}
+		
+		int id = potionEffect.id();
+		if (id >= 0 && id < potionEffects.length) return potionEffects[id];
+		
+		// Potion effect was not known when freezing
+		CombatPotionEffect combatPotionEffect = frozen.get(potionEffect);
+		return combatPotionEffect != null ? combatPotionEffect
+				: UNKNOWN.computeIfAbsent(potionEffect, effect -> new CombatPotionEffect(effect));
+	}
+	
+	/**
+	 * @param potionEffect the potion effect
+	 * @return true if a combat potion effect was registered for the potion effect
+	 */
+	public static boolean isRegistered(PotionEffect potionEffect) {
+		Map<PotionEffect, CombatPotionEffect> potionEffects = frozen;
+		if (potionEffects == null) potionEffects = freeze();
+		return potionEffects.containsKey(potionEffect);
 	}
 	
-	public static void register(CombatPotionEffect... potionEffects) {
+	public static synchronized void register(CombatPotionEffect... potionEffects) {
+		if (frozen != null)
+			throw new IllegalStateException("Combat potion effects can only be registered during startup");
+		
 		for (CombatPotionEffect potionEffect : potionEffects) {
 			POTION_EFFECTS.put(potionEffect.getPotionEffect(), potionEffect);
 		}
 	}
 	
-	public static void registerAll() {
+	/**
+	 * Freezes the registry, after which no more potion effects can be registered.
+	 *
+	 * @return the frozen registry
+	 */
+	public static synchronized Map<PotionEffect, CombatPotionEffect> freeze() {
+		if (frozen == null) {
+			Map<PotionEffect, CombatPotionEffect> potionEffects = Map.copyOf(POTION_EFFECTS);
+			
+			int size = 0;
+			for (PotionEffect potionEffect : PotionEffect.values()) {
+				size = Math.max(size, potionEffect.id() + 1);
+			}
+			
+			CombatPotionEffect[] table = new CombatPotionEffect[size];
+			for (PotionEffect potionEffect : PotionEffect.values()) {
+				CombatPotionEffect combatPotionEffect = potionEffects.get(potionEffect);
+				table[potionEffect.id()] = combatPotionEffect != null ? combatPotionEffect : new CombatPotionEffect(potionEffect);
+			}
+			
+			frozen = potionEffects;
+			byId = table;
+		}
+		return frozen;
+	}
+	
+	public static synchronized void registerAll() {
+		if (registered) return;
+		registered = true;
+		
 		register(
 				new CombatPotionEffect(PotionEffect.SPEED).addAttributeModifier(Attribute.MOVEMENT_SPEED, Key.key("minecraft:effect.speed"), 0.2, AttributeOperation.ADD_MULTIPLIED_TOTAL),
 				new CombatPotionEffect(PotionEffect.SLOWNESS).addAttributeModifier(Attribute.MOVEMENT_SPEED, Key.key("minecraft:effect.slowness"), -0.15, AttributeOperation.ADD_MULTIPLIED_TOTAL),
@@ -8,20 +8,46 @@ import net.minestom.server.potion.PotionType;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Registry of all combat potion types.
+ * <p>
+ * Potion types can only be registered during startup. The registry is frozen into an immutable map
+ * on the first lookup (or by calling {@link #freeze()}), after which it can safely be read from any thread.
+ */
 public class CombatPotionTypes {
 	private static final Map<PotionType, CombatPotionType> POTION_EFFECTS = new HashMap<>();
+	private static volatile Map<PotionType, CombatPotionType> frozen;
+	private static boolean registered = false;
 	
 	public static CombatPotionType get(PotionType potionType) {
-		return POTION_EFFECTS.get(potionType);
+		Map<PotionType, CombatPotionType> potionTypes = frozen;
+		if (potionTypes == null) potionTypes = freeze();
+		return potionTypes.get(potionType);
 	}
 	
-	public static void register(CombatPotionType... potionTypes) {
+	public static synchronized void register(CombatPotionType... potionTypes) {
+		if (frozen != null)
+			throw new IllegalStateException("Combat potion types can only be registered during startup");
+		
 		for (CombatPotionType potionType : potionTypes) {
 			POTION_EFFECTS.put(potionType.getPotionType(), potionType);
 		}
 	}
 	
-	public static void registerAll() {
+	/**
+	 * Freezes the registry, after which no more potion types can be registered.
+	 *
+	 * @return the frozen registry
+	 */
+	public static synchronized Map<PotionType, CombatPotionType> freeze() {
+		if (frozen == null) frozen = Map.copyOf(POTION_EFFECTS);
+		return frozen;
+	}
+	
+	public static synchronized void registerAll() {
+		if (registered) return;
+		registered = true;
+		
 		register(
 				new CombatPotionType(PotionType.WATER),
 				new CombatPotionType(PotionType.MUNDANE),
@@ -0,0 +1,135 @@
+package io.github.togar2.pvp.utils;
+
+import net.minestom.server.collision.BoundingBox;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.coordinate.Vec;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.instance.Instance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Helper for attacks which hit every entity in an area, like sweeping attacks and explosions.
+ * <p>
+ * An area attack is done in two steps: first the victims are collected once using
+ * {@link #query(Instance, double, double, double, double, double, double, Class, Predicate)},
+ * then {@link #apply(Collection, Hit)} applies damage and knockback to every victim.
+ * All feedback packets caused by the hits (sounds, particles, damage events) are sent as one bundle per viewer,
+ * see {@link CombatFeedback}.
+ */
+public final class AreaDamage {
+	/**
+	 * Distance added to the search radius of a query, so that entities whose position is outside of the area
+	 * but whose bounding box is inside of it are still found.
+	 */
+	private static final double ENTITY_MARGIN = 2.0;
+	
+	private AreaDamage() {}
+	
+	/**
+	 * Collects all entities of the given type whose bounding box intersects the given box.
+	 *
+	 * @param instance the instance to search in
+	 * @param minX the minimum x coordinate of the box
+	 * @param minY the minimum y coordinate of the box
+	 * @param minZ the minimum z coordinate of the box
+	 * @param maxX the maximum x coordinate of the box
+	 * @param maxY the maximum y coordinate of the box
+	 * @param maxZ the maximum z coordinate of the box
+	 * @param type the type of entities to collect
+	 * @param filter the filter the entities have to pass
+	 * @return the entities in the box
+	 * @param <T> the type of entities to collect
+	 */
+	public static <T extends Entity> List<T> query(Instance instance,
+	                                               double minX, double minY, double minZ,
+	                                               double maxX, double maxY, double maxZ,
+	                                               Class<T> type, Predicate<? super T> filter) {
+		double halfX = (maxX - minX) / 2, halfY = (maxY - minY) / 2, halfZ = (maxZ - minZ) / 2;
+		Vec center = new Vec(minX + halfX, minY + halfY, minZ + halfZ);
+		double range = Math.sqrt(halfX * halfX + halfY * halfY + halfZ * halfZ) + ENTITY_MARGIN;
+		
+		List<T> result = new ArrayList<>();
+		for (Entity entity : instance.getNearbyEntities(center, range)) {
+			if (!type.isInstance(entity)) continue;
+			if (!intersects(entity, minX, minY, minZ, maxX, maxY, maxZ)) continue;
+			
+			T victim = type.cast(entity);
+			if (filter.test(victim)) result.add(victim);
+		}
+		
+		return result;
+	}
+	
+	/**
+	 * Collects all entities of the given type whose bounding box intersects the given bounding box at the given position.
+	 *
+	 * @param instance the instance to search in
+	 * @param position the position of the bounding box
+	 * @param boundingBox the bounding box
+	 * @param type the type of entities to collect
+	 * @param filter the filter the entities have to pass
+	 * @return the entities in the bounding box
+	 * @param <T> the type of entities to collect
+	 */
+	public static <T extends Entity> List<T> query(Instance instance, Pos position, BoundingBox boundingBox,
+	                                               Class<T> type, Predicate<? super T> filter) {
+		return query(
+				instance,
+				position.x() + boundingBox.minX(), position.y() + boundingBox.minY(), position.z() + boundingBox.minZ(),
+				position.x() + boundingBox.maxX(), position.y() + boundingBox.maxY(), position.z() + boundingBox.maxZ(),
+				type, filter
+		);
+	}
+	
+	/**
+	 * Applies a hit to every victim, sending all resulting feedback as one bundle per viewer.
+	 *
+	 * @param victims the victims, usually the result of a query
+	 * @param hit the hit to apply to every victim
+	 * @return the victims which were hit
+	 * @param <T> the type of the victims
+	 */
+	public static <T extends Entity> List<T> apply(Collection<T> victims, Hit<? super T> hit) {
+		List<T> hitVictims = new ArrayList<>(victims.size());
+		
+		CombatFeedback feedback = CombatFeedback.begin();
+		try {
+			for (T victim : victims) {
+				if (hit.apply(victim)) hitVictims.add(victim);
+			}
+		} finally {
+			feedback.end();
+		}
+		
+		return hitVictims;
+	}
+	
+	private static boolean intersects(Entity entity, double minX, double minY, double minZ,
+	                                  double maxX, double maxY, double maxZ) {
+		Pos position = entity.getPosition();
+		BoundingBox boundingBox = entity.getBoundingBox();
+		return position.x() + boundingBox.minX() < maxX && position.x() + boundingBox.maxX() > minX
+				&& position.y() + boundingBox.minY() < maxY && position.y() + boundingBox.maxY() > minY
+				&& position.z() + boundingBox.minZ() < maxZ && position.z() + boundingBox.maxZ() > minZ;
+	}
+	
+	/**
+	 * A hit of an area attack on a single victim.
+	 *
+	 * @param <T> the type of the victim
+	 */
+	@FunctionalInterface
+	public interface Hit<T extends Entity> {
+		/**
+		 * Applies damage and knockback to the victim.
+		 *
+		 * @param victim the victim
+		 * @return true if the victim was hit
+		 */
+		boolean apply(T victim);
+	}
+}
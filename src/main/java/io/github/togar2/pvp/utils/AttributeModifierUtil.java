@@ -0,0 +1,40 @@
+package io.github.togar2.pvp.utils;
+
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.entity.attribute.Attribute;
+import net.minestom.server.entity.attribute.AttributeInstance;
+import net.minestom.server.entity.attribute.AttributeModifier;
+
+import java.util.Map;
+
+public class AttributeModifierUtil {
+	/**
+	 * Replaces the modifiers an item gave to an entity with the modifiers another item gives.
+	 * Only attributes whose modifier actually changes are touched, so that switching between items
+	 * with the same modifiers does not cause the attribute to be recalculated and sent to the client.
+	 *
+	 * @param entity the entity
+	 * @param oldModifiers the modifiers of the old item, per attribute
+	 * @param newModifiers the modifiers of the new item, per attribute
+	 */
+	public static void replaceModifiers(LivingEntity entity,
+	                                    Map<Attribute, AttributeModifier> oldModifiers,
+	                                    Map<Attribute, AttributeModifier> newModifiers) {
+		if (oldModifiers.equals(newModifiers)) return;
+		
+		for (Map.Entry<Attribute, AttributeModifier> entry : oldModifiers.entrySet()) {
+			if (!newModifiers.containsKey(entry.getKey()))
+				entity.getAttribute(entry.getKey()).removeModifier(entry.getValue().id());
+		}
+		
+		for (Map.Entry<Attribute, AttributeModifier> entry : newModifiers.entrySet()) {
+			AttributeModifier oldModifier = oldModifiers.get(entry.getKey());
+			AttributeModifier newModifier = entry.getValue();
+			if (newModifier.equals(oldModifier)) continue;
+			
+			AttributeInstance instance = entity.getAttribute(entry.getKey());
+			if (oldModifier != null) instance.removeModifier(oldModifier.id());
+			instance.addModifier(newModifier);
+		}
+	}
+}
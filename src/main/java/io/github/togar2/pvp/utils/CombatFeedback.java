@@ -0,0 +1,127 @@
+package io.github.togar2.pvp.utils;
+
+import net.kyori.adventure.sound.Sound;
+import net.minestom.server.adventure.AdventurePacketConvertor;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.Player;
+import net.minestom.server.network.packet.server.CachedPacket;
+import net.minestom.server.network.packet.server.SendablePacket;
+import net.minestom.server.network.packet.server.ServerPacket;
+import net.minestom.server.network.packet.server.play.BundlePacket;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Buffers the feedback packets of a combat action (sounds, animations, particles, damage events)
+ * per viewer, and sends them as a single bundle to every viewer once the action is done.
+ * <p>
+ * A batch is started using {@link #begin()} and must be ended using {@link #end()}, preferably in a finally block.
+ * Batches can be nested, only the outermost batch flushes the packets.
+ * When no batch is active on the current thread, packets are sent immediately.
+ * <p>
+ * Batches are bound to the thread they were started on,
+ * since entities in the same instance can be ticked on different threads.
+ */
+public final class CombatFeedback {
+	private static final ThreadLocal<CombatFeedback> CURRENT = ThreadLocal.withInitial(CombatFeedback::new);
+	private static final BundlePacket BUNDLE_DELIMITER = new BundlePacket();
+	
+	private final Map<Player, List<SendablePacket>> pending = new IdentityHashMap<>();
+	private final ArrayDeque<List<SendablePacket>> freeLists = new ArrayDeque<>();
+	private int depth;
+	
+	private CombatFeedback() {}
+	
+	/**
+	 * Starts a batch on the current thread.
+	 *
+	 * @return the batch, which should be ended using {@link #end()}
+	 */
+	public static CombatFeedback begin() {
+		CombatFeedback feedback = CURRENT.get();
+		feedback.depth++;
+		return feedback;
+	}
+	
+	/**
+	 * Ends this batch. If this was the outermost batch, all buffered packets are sent.
+	 */
+	public void end() {
+		if (depth == 0) throw new IllegalStateException("Combat feedback batch was not started");
+		if (--depth == 0) flush();
+	}
+	
+	/**
+	 * Sends a packet to the viewers of the entity, and to the entity itself if it is a player.
+	 * The packet is buffered if a batch is active on the current thread.
+	 *
+	 * @param origin the entity
+	 * @param packet the packet to send
+	 */
+	public static void sendToViewersAndSelf(Entity origin, ServerPacket packet) {
+		CombatFeedback feedback = CURRENT.get();
+		if (feedback.depth == 0) {
+			origin.sendPacketToViewersAndSelf(packet);
+			return;
+		}
+		
+		Set<Player> viewers = origin.getViewers();
+		boolean self = origin instanceof Player;
+		int recipients = viewers.size() + (self ? 1 : 0);
+		if (recipients == 0) return;
+		
+		// Serialize only once if the packet is sent to multiple players
+		SendablePacket sendable = recipients > 1 ? new CachedPacket(packet) : packet;
+		for (Player viewer : viewers) {
+			feedback.add(viewer, sendable);
+		}
+		if (self) feedback.add((Player) origin, sendable);
+	}
+	
+	/**
+	 * Plays a sound following the entity to the viewers of the entity, and to the entity itself if it is a player.
+	 * The sound is buffered if a batch is active on the current thread.
+	 *
+	 * @param origin the entity emitting the sound
+	 * @param sound the sound to play
+	 */
+	public static void playSound(Entity origin, Sound sound) {
+		sendToViewersAndSelf(origin, AdventurePacketConvertor.createSoundPacket(sound, origin));
+	}
+	
+	private void add(Player player, SendablePacket packet) {
+		List<SendablePacket> packets = pending.get(player);
+		if (packets == null) {
+			packets = freeLists.isEmpty() ? new ArrayList<>() : freeLists.poll();
+			pending.put(player, packets);
+		}
+		packets.add(packet);
+	}
+	
+	private void flush() {
+		if (pending.isEmpty()) return;
+		
+		for (Map.Entry<Player, List<SendablePacket>> entry : pending.entrySet()) {
+			Player player = entry.getKey();
+			List<SendablePacket> packets = entry.getValue();
+			
+			if (packets.size() == 1) {
+				player.sendPacket(packets.getFirst());
+			} else {
+				// Bundled packets are processed by the client in the same tick
+				player.sendPacket(BUNDLE_DELIMITER);
+				player.sendPackets(packets);
+				player.sendPacket(BUNDLE_DELIMITER);
+			}
+			
+			packets.clear();
+			freeLists.add(packets);
+		}
+		pending.clear();
+	}
+}
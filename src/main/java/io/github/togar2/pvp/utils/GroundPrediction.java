@@ -0,0 +1,155 @@
+package io.github.togar2.pvp.utils;
+
+import io.github.togar2.pvp.entity.state.CombatState;
+import net.minestom.server.collision.BoundingBox;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.instance.block.Block;
+
+/**
+ * Predicts when an entity will touch the ground, without simulating its movement tick by tick.
+ * <p>
+ * The vertical movement of an entity follows the recurrence {@code v(k+1) = (v(k) - g) * d},
+ * where {@code g} is the gravity and {@code d} is the vertical air resistance.
+ * This recurrence is solved in closed form, so a prediction costs the same no matter how many ticks it spans.
+ * The height of the ground below an entity is cached in its {@link CombatState} and is only looked up once per tick.
+ * <p>
+ * The prediction assumes the ground below the entity does not change while it is falling,
+ * and does not take into account horizontal movement or blocks like water and cobwebs.
+ */
+public final class GroundPrediction {
+	/**
+	 * The maximum amount of blocks below an entity which are scanned to find the ground.
+	 */
+	public static final int MAX_SCAN_DEPTH = 24;
+	
+	private static final double EPSILON = 1.0E-5;
+	
+	private GroundPrediction() {}
+	
+	/**
+	 * Calculates the vertical velocity after the given amount of ticks.
+	 *
+	 * @param velocity the vertical velocity at the start
+	 * @param gravity the gravity which is subtracted every tick
+	 * @param drag the vertical air resistance which the velocity is multiplied with every tick
+	 * @param ticks the amount of ticks
+	 * @return the vertical velocity after the given amount of ticks
+	 */
+	public static double getVelocityAfterTicks(double velocity, double gravity, double drag, int ticks) {
+		if (ticks <= 0) return velocity;
+		if (drag == 1) return velocity - gravity * ticks;
+		
+		// v(k) = -c + d^k * (v(0) + c), where c is the terminal velocity
+		double terminal = gravity * drag / (1 - drag);
+		return -terminal + Math.pow(drag, ticks) * (velocity + terminal);
+	}
+	
+	/**
+	 * Calculates the vertical distance travelled in the given amount of ticks,
+	 * where every tick the entity is moved by its velocity before gravity and air resistance are applied.
+	 *
+	 * @param velocity the vertical velocity (in blocks per tick) at the start
+	 * @param gravity the gravity which is subtracted every tick
+	 * @param drag the vertical air resistance which the velocity is multiplied with every tick
+	 * @param ticks the amount of ticks
+	 * @return the vertical displacement after the given amount of ticks
+	 */
+	public static double getDisplacementAfterTicks(double velocity, double gravity, double drag, int ticks) {
+		if (ticks <= 0) return 0;
+		if (drag == 1) return velocity * ticks - gravity * ticks * (ticks - 1) / 2d;
+		
+		// Sum of v(k) for k in [0, ticks)
+		double terminal = gravity * drag / (1 - drag);
+		return -terminal * ticks + (velocity + terminal) * (1 - Math.pow(drag, ticks)) / (1 - drag);
+	}
+	
+	/**
+	 * Determines whether an entity at the given height will have touched the ground within the given amount of ticks.
+	 * <p>
+	 * The height of the entity first increases (if the velocity is positive) and then decreases,
+	 * so its lowest point within the given amount of ticks is either after the first or after the last tick.
+	 *
+	 * @param y the current height of the entity
+	 * @param groundHeight the height of the ground below the entity
+	 * @param velocity the vertical velocity (in blocks per tick) of the entity
+	 * @param gravity the gravity of the entity
+	 * @param drag the vertical air resistance of the entity
+	 * @param ticks the amount of ticks
+	 * @return true if the entity will have touched the ground
+	 */
+	public static boolean willLandWithin(double y, double groundHeight, double velocity,
+	                                     double gravity, double drag, int ticks) {
+		if (ticks <= 0 || Double.isInfinite(groundHeight)) return false;
+		
+		double lowest = Math.min(
+				getDisplacementAfterTicks(velocity, gravity, drag, 1),
+				getDisplacementAfterTicks(velocity, gravity, drag, ticks)
+		);
+		return y + lowest <= groundHeight + EPSILON;
+	}
+	
+	/**
+	 * Gets the height of the ground below the entity, caching it for the current tick.
+	 *
+	 * @param entity the entity
+	 * @return the height of the ground, or {@link Double#NEGATIVE_INFINITY} if no ground was found
+	 */
+	public static double getGroundHeight(LivingEntity entity) {
+		CombatState state = CombatState.of(entity);
+		long tick = entity.getAliveTicks();
+		if (state.getGroundHeightTick() == tick) return state.getGroundHeight();
+		
+		Instance instance = entity.getInstance();
+		double groundHeight = instance == null ? Double.NEGATIVE_INFINITY
+				: findGroundHeight(instance, entity.getPosition(), entity.getBoundingBox());
+		state.setGroundHeight(tick, groundHeight);
+		return groundHeight;
+	}
+	
+	/**
+	 * Finds the highest collision surface below the bounding box at the given position,
+	 * by scanning the block columns the bounding box covers.
+	 *
+	 * @param instance the instance
+	 * @param position the position of the bounding box
+	 * @param boundingBox the bounding box
+	 * @return the height of the ground, or {@link Double#NEGATIVE_INFINITY} if no ground was found
+	 */
+	public static double findGroundHeight(Instance instance, Pos position, BoundingBox boundingBox) {
+		int minX = (int) Math.floor(position.x() + boundingBox.minX());
+		int maxX = (int) Math.floor(position.x() + boundingBox.maxX() - EPSILON);
+		int minZ = (int) Math.floor(position.z() + boundingBox.minZ());
+		int maxZ = (int) Math.floor(position.z() + boundingBox.maxZ() - EPSILON);
+		
+		double feet = position.y() + boundingBox.minY();
+		int startY = (int) Math.floor(feet);
+		int endY = Math.max(startY - MAX_SCAN_DEPTH, instance.getCachedDimensionType().minY());
+		
+		double ground = Double.NEGATIVE_INFINITY;
+		for (int x = minX; x <= maxX; x++) {
+			for (int z = minZ; z <= maxZ; z++) {
+				Chunk chunk = instance.getChunkAt(x, z);
+				if (chunk == null) continue;
+				
+				// Blocks below the highest ground found so far cannot be higher
+				int lowestY = ground == Double.NEGATIVE_INFINITY ? endY
+						: Math.max(endY, (int) Math.floor(ground) - 1);
+				for (int y = startY; y >= lowestY; y--) {
+					Block block = chunk.getBlock(x, y, z, Block.Getter.Condition.TYPE);
+					if (block.isAir() || !block.isSolid()) continue;
+					
+					double top = y + block.registry().collisionShape().relativeEnd().y();
+					if (top > feet + EPSILON) continue; // The entity is next to this block, not on top of it
+					
+					if (top > ground) ground = top;
+					break;
+				}
+			}
+		}
+		
+		return ground;
+	}
+}
@@ -0,0 +1,29 @@
+package io.github.togar2.pvp.utils;
+
+import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.tag.Tag;
+import net.minestom.server.thread.ThreadProvider;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link ThreadProvider} which ticks all chunks of an instance on the same thread.
+ * Instances are spread over the threads in the order in which their first chunk is dispatched.
+ * <p>
+ * MinestomPvP changes the combat state of both entities when they fight,
+ * so entities which can interact with each other have to be ticked on the same thread.
+ * Partitioning by instance guarantees this, partitioning by chunk does not.
+ */
+public final class InstanceThreadProvider implements ThreadProvider<Chunk> {
+	private static final Tag<Integer> THREAD_INDEX = Tag.Transient("instanceThreadIndex");
+	
+	private final AtomicInteger counter = new AtomicInteger();
+	
+	@Override
+	public int findThread(Chunk chunk) {
+		Instance instance = chunk.getInstance();
+		return instance.updateAndGetTag(THREAD_INDEX,
+				index -> index != null ? index : counter.getAndIncrement() & Integer.MAX_VALUE);
+	}
+}
@@ -0,0 +1,23 @@
+package io.github.togar2.pvp.utils;
+
+public class OverrideUtil {
+	/**
+	 * Checks whether a method of a base class is overridden by a subclass, also for non-public methods.
+	 * Used to keep calling deprecated hooks when a subclass still overrides them.
+	 *
+	 * @param type the runtime class, usually {@code getClass()}
+	 * @param base the class declaring the method
+	 * @param name the name of the method
+	 * @param parameterTypes the parameter types of the method
+	 * @return true if a class between {@code type} (inclusive) and {@code base} (exclusive) declares the method
+	 */
+	public static boolean isOverridden(Class<?> type, Class<?> base, String name, Class<?>... parameterTypes) {
+		for (Class<?> current = type; current != null && current != base; current = current.getSuperclass()) {
+			try {
+				current.getDeclaredMethod(name, parameterTypes);
+				return true;
+			} catch (NoSuchMethodException ignored) {}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,142 @@
+package io.github.togar2.pvp.test;
+
+import io.github.togar2.pvp.MinestomPvP;
+import io.github.togar2.pvp.feature.CombatFeatureSet;
+import io.github.togar2.pvp.feature.CombatFeatures;
+import io.github.togar2.pvp.feature.FeatureType;
+import io.github.togar2.pvp.feature.attack.AttackFeature;
+import io.github.togar2.pvp.utils.InstanceThreadProvider;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.entity.EntityType;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.entity.attribute.Attribute;
+import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.instance.block.Block;
+import net.minestom.server.potion.Potion;
+import net.minestom.server.potion.PotionEffect;
+import net.minestom.server.thread.ThreadDispatcher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs many arenas, one per instance, on a multi-threaded {@link ThreadDispatcher} partitioned by instance.
+ * Every arena has pairs of entities standing on both sides of a chunk border, which attack and poison each other.
+ * <p>
+ * The test fails (exit code 1) if an exception is thrown while ticking, if the entities of an instance
+ * were not ticked on a single thread, or if no attack landed.
+ */
+public class ConcurrencyStressTest {
+	private static final int INSTANCES = 32;
+	private static final int PAIRS_PER_INSTANCE = 8;
+	private static final int THREADS = 4;
+	private static final int TICKS = 600;
+	
+	public static void main(String[] args) {
+		MinecraftServer.init();
+		MinestomPvP.init();
+		
+		Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+		MinecraftServer.getExceptionManager().setExceptionHandler(errors::add);
+		
+		CombatFeatureSet features = CombatFeatures.modernVanilla();
+		MinecraftServer.getGlobalEventHandler().addChild(features.createNode());
+		AttackFeature attackFeature = features.get(FeatureType.ATTACK);
+		AtomicInteger hits = new AtomicInteger();
+		
+		ThreadDispatcher<Chunk> dispatcher = ThreadDispatcher.of(new InstanceThreadProvider(), THREADS);
+		dispatcher.start();
+		
+		List<Instance> instances = new ArrayList<>();
+		List<List<Fighter>> fightersPerInstance = new ArrayList<>();
+		for (int i = 0; i < INSTANCES; i++) {
+			Instance instance = MinecraftServer.getInstanceManager().createInstanceContainer();
+			instance.setGenerator(unit -> unit.modifier().fillHeight(0, 40, Block.STONE));
+			dispatcher.createPartition(instance.loadChunk(0, 0).join());
+			dispatcher.createPartition(instance.loadChunk(1, 0).join());
+			
+			List<Fighter> fighters = new ArrayList<>();
+			for (int pair = 0; pair < PAIRS_PER_INSTANCE; pair++) {
+				// Both entities of a pair stand in a different chunk
+				Fighter left = new Fighter(attackFeature, hits);
+				Fighter right = new Fighter(attackFeature, hits);
+				left.partner = right;
+				right.partner = left;
+				
+				left.setInstance(instance, new Pos(15.5, 40, pair * 2 + 0.5)).join();
+				right.setInstance(instance, new Pos(16.5, 40, pair * 2 + 0.5)).join();
+				dispatcher.updateElement(left, left.getChunk());
+				dispatcher.updateElement(right, right.getChunk());
+				fighters.add(left);
+				fighters.add(right);
+			}
+			
+			instances.add(instance);
+			fightersPerInstance.add(fighters);
+		}
+		
+		int violations = 0;
+		long time = System.currentTimeMillis();
+		for (int tick = 0; tick < TICKS; tick++) {
+			for (Instance instance : instances) {
+				instance.tick(time);
+			}
+			dispatcher.updateAndAwait(time);
+			dispatcher.refreshThreads();
+			time += MinecraftServer.TICK_MS;
+			
+			for (List<Fighter> fighters : fightersPerInstance) {
+				Thread thread = fighters.getFirst().lastThread;
+				for (Fighter fighter : fighters) {
+					if (fighter.lastThread != thread) {
+						violations++;
+						break;
+					}
+				}
+			}
+		}
+		
+		dispatcher.shutdown();
+		
+		for (Throwable error : errors) {
+			error.printStackTrace();
+		}
+		System.out.println("Ticks: " + TICKS + ", instances: " + INSTANCES + ", threads: " + THREADS);
+		System.out.println("Hits: " + hits.get() + ", exceptions: " + errors.size() + ", thread violations: " + violations);
+		
+		boolean success = errors.isEmpty() && violations == 0 && hits.get() > 0;
+		System.out.println(success ? "SUCCESS" : "FAILURE");
+		System.exit(success ? 0 : 1);
+	}
+	
+	private static final class Fighter extends LivingEntity {
+		private final AttackFeature attackFeature;
+		private final AtomicInteger hits;
+		private Fighter partner;
+		private volatile Thread lastThread;
+		
+		private Fighter(AttackFeature attackFeature, AtomicInteger hits) {
+			super(EntityType.ZOMBIE);
+			this.attackFeature = attackFeature;
+			this.hits = hits;
+			getAttribute(Attribute.MAX_HEALTH).setBaseValue(1000);
+			heal();
+		}
+		
+		@Override
+		public void update(long time) {
+			super.update(time);
+			lastThread = Thread.currentThread();
+			
+			long ticks = getAliveTicks();
+			if (ticks % 5 == 0 && attackFeature.performAttack(this, partner)) hits.incrementAndGet();
+			if (ticks % 40 == 0) partner.addEffect(new Potion(PotionEffect.POISON, 1, 30));
+			if (getHealth() < 100) heal();
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package io.github.togar2.pvp.test;
+
+import io.github.togar2.pvp.MinestomPvP;
+import io.github.togar2.pvp.feature.CombatFeatures;
+import io.github.togar2.pvp.utils.InstanceThreadProvider;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.entity.EntityType;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.instance.block.Block;
+import net.minestom.server.potion.Potion;
+import net.minestom.server.potion.PotionEffect;
+import net.minestom.server.thread.ThreadDispatcher;
+
+/**
+ * Checks that periodic effects with an infinite duration keep applying their updates:
+ * infinite regeneration has to heal, infinite poison and wither have to deal damage.
+ * <p>
+ * The test fails (exit code 1) if one of the entities did not change health.
+ */
+public class InfiniteEffectTest {
+	private static final int TICKS = 200;
+	
+	public static void main(String[] args) {
+		MinecraftServer.init();
+		MinestomPvP.init();
+		MinecraftServer.getGlobalEventHandler().addChild(CombatFeatures.modernVanilla().createNode());
+		
+		ThreadDispatcher<Chunk> dispatcher = ThreadDispatcher.of(new InstanceThreadProvider(), 1);
+		dispatcher.start();
+		
+		Instance instance = MinecraftServer.getInstanceManager().createInstanceContainer();
+		instance.setGenerator(unit -> unit.modifier().fillHeight(0, 40, Block.STONE));
+		Chunk chunk = instance.loadChunk(0, 0).join();
+		dispatcher.createPartition(chunk);
+		
+		LivingEntity regenerating = spawn(instance, dispatcher, chunk, 0.5, 10);
+		LivingEntity poisoned = spawn(instance, dispatcher, chunk, 2.5, 20);
+		LivingEntity withering = spawn(instance, dispatcher, chunk, 4.5, 20);
+		regenerating.addEffect(new Potion(PotionEffect.REGENERATION, 0, Potion.INFINITE_DURATION));
+		poisoned.addEffect(new Potion(PotionEffect.POISON, 0, Potion.INFINITE_DURATION));
+		withering.addEffect(new Potion(PotionEffect.WITHER, 0, Potion.INFINITE_DURATION));
+		
+		long time = System.currentTimeMillis();
+		for (int tick = 0; tick < TICKS; tick++) {
+			instance.tick(time);
+			dispatcher.updateAndAwait(time);
+			dispatcher.refreshThreads();
+			time += MinecraftServer.TICK_MS;
+		}
+		
+		dispatcher.shutdown();
+		
+		System.out.println("Ticks: " + TICKS);
+		System.out.println("Regeneration: " + regenerating.getHealth() + ", poison: " + poisoned.getHealth()
+				+ ", wither: " + withering.getHealth());
+		
+		boolean success = regenerating.getHealth() > 10 && poisoned.getHealth() < 20 && withering.getHealth() < 20;
+		System.out.println(success ? "SUCCESS" : "FAILURE");
+		System.exit(success ? 0 : 1);
+	}
+	
+	private static LivingEntity spawn(Instance instance, ThreadDispatcher<Chunk> dispatcher, Chunk chunk, double x, float health) {
+		LivingEntity entity = new LivingEntity(EntityType.COW);
+		entity.setInstance(instance, new Pos(x, 40, 0.5)).join();
+		entity.setHealth(health);
+		dispatcher.updateElement(entity, chunk);
+		return entity;
+	}
+}
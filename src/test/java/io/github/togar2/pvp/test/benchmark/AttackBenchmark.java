@@ -0,0 +1,89 @@
+package io.github.togar2.pvp.test.benchmark;
+
+import io.github.togar2.pvp.MinestomPvP;
+import io.github.togar2.pvp.entity.state.CombatState;
+import io.github.togar2.pvp.events.EntityKnockbackEvent;
+import io.github.togar2.pvp.events.EquipmentDamageEvent;
+import io.github.togar2.pvp.events.FinalAttackEvent;
+import io.github.togar2.pvp.events.FinalDamageEvent;
+import io.github.togar2.pvp.events.PrepareAttackEvent;
+import io.github.togar2.pvp.feature.CombatFeatureSet;
+import io.github.togar2.pvp.feature.CombatFeatures;
+import io.github.togar2.pvp.feature.FeatureType;
+import io.github.togar2.pvp.feature.attack.AttackFeature;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.coordinate.Pos;
+import net.minestom.server.entity.EntityType;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.entity.attribute.Attribute;
+import net.minestom.server.event.GlobalEventHandler;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.instance.block.Block;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full melee attack between two entities, including damage, knockback and feedback.
+ * <p>
+ * Run with {@code ./gradlew jmh -PjmhArgs=AttackBenchmark}, the gc profiler reports the allocation rate per attack
+ * ({@code gc.alloc.rate.norm}).
+ * <p>
+ * With {@code listeners=true}, an empty listener is registered for every combat event called during an attack,
+ * so every event object is constructed and called. The difference with {@code listeners=false} is what is saved
+ * by skipping events without listeners (see {@link io.github.togar2.pvp.events.CombatEventHandles}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AttackBenchmark {
+	@Param({"false", "true"})
+	public boolean listeners;
+	
+	private AttackFeature attackFeature;
+	private LivingEntity attacker;
+	private LivingEntity target;
+	private CombatState targetState;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		MinecraftServer.init();
+		MinestomPvP.init();
+		
+		CombatFeatureSet features = CombatFeatures.legacyVanilla();
+		MinecraftServer.getGlobalEventHandler().addChild(features.createNode());
+		attackFeature = features.get(FeatureType.ATTACK);
+		
+		if (listeners) {
+			GlobalEventHandler eventHandler = MinecraftServer.getGlobalEventHandler();
+			eventHandler.addListener(PrepareAttackEvent.class, event -> {});
+			eventHandler.addListener(FinalAttackEvent.class, event -> {});
+			eventHandler.addListener(EntityKnockbackEvent.class, event -> {});
+			eventHandler.addListener(FinalDamageEvent.class, event -> {});
+			eventHandler.addListener(EquipmentDamageEvent.class, event -> {});
+		}
+		
+		Instance instance = MinecraftServer.getInstanceManager().createInstanceContainer();
+		instance.setGenerator(unit -> unit.modifier().fillHeight(0, 40, Block.STONE));
+		instance.loadChunk(0, 0).join();
+		
+		attacker = new LivingEntity(EntityType.ZOMBIE);
+		attacker.setInstance(instance, new Pos(0.5, 40, 0.5)).join();
+		
+		target = new LivingEntity(EntityType.ZOMBIE);
+		target.getAttribute(Attribute.MAX_HEALTH).setBaseValue(1000);
+		target.setInstance(instance, new Pos(1.5, 40, 0.5)).join();
+		targetState = CombatState.of(target);
+	}
+	
+	@Benchmark
+	public boolean attack() {
+		// Every attack should hit, so the invulnerability ticks and health of the target are reset
+		targetState.setNewDamageTime(-10000);
+		target.heal();
+		return attackFeature.performAttack(attacker, target);
+	}
+}
@@ -0,0 +1,90 @@
+package io.github.togar2.pvp.test.benchmark;
+
+import io.github.togar2.pvp.enums.ArmorMaterial;
+import io.github.togar2.pvp.enums.Tool;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.item.Material;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the lookups of {@link Tool#fromMaterial(Material)} and {@link ArmorMaterial#fromMaterial(Material)}
+ * with the lookups they replaced (a scan over {@code Tool.values()} and a {@link HashMap} keyed by material).
+ * <p>
+ * Every invocation looks up the materials an attack typically checks: a few weapons and armor pieces, and an item which is neither.
+ * Run with {@code ./gradlew jmh -PjmhArgs=MaterialLookupBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaterialLookupBenchmark {
+	private static final Material[] MATERIALS = {
+			Material.DIAMOND_SWORD, Material.NETHERITE_AXE, Material.TRIDENT, Material.STICK,
+			Material.IRON_CHESTPLATE, Material.DIAMOND_BOOTS, Material.ELYTRA
+	};
+	
+	// The material of every tool, indexed by ordinal, like the field the old scan compared against
+	private Material[] toolMaterials;
+	private Map<Material, ArmorMaterial> armorByMaterial;
+	
+	@Setup(Level.Trial)
+	public void setup() {
+		MinecraftServer.init();
+		
+		toolMaterials = new Material[Tool.values().length];
+		for (Tool tool : Tool.values()) {
+			toolMaterials[tool.ordinal()] = Material.fromKey(tool.name().toLowerCase());
+		}
+		
+		armorByMaterial = new HashMap<>();
+		for (Material material : Material.values()) {
+			ArmorMaterial armorMaterial = ArmorMaterial.fromMaterial(material);
+			if (armorMaterial != null) armorByMaterial.put(material, armorMaterial);
+		}
+	}
+	
+	@Benchmark
+	public void toolScan(Blackhole blackhole) {
+		for (Material material : MATERIALS) {
+			blackhole.consume(scanTool(material));
+		}
+	}
+	
+	@Benchmark
+	public void toolIndexed(Blackhole blackhole) {
+		for (Material material : MATERIALS) {
+			blackhole.consume(Tool.fromMaterial(material));
+		}
+	}
+	
+	@Benchmark
+	public void armorHashMap(Blackhole blackhole) {
+		for (Material material : MATERIALS) {
+			blackhole.consume(armorByMaterial.get(material));
+		}
+	}
+	
+	@Benchmark
+	public void armorIndexed(Blackhole blackhole) {
+		for (Material material : MATERIALS) {
+			blackhole.consume(ArmorMaterial.fromMaterial(material));
+		}
+	}
+	
+	private Tool scanTool(Material material) {
+		for (Tool tool : Tool.values()) {
+			if (toolMaterials[tool.ordinal()] == material) {
+				return tool;
+			}
+		}
+		
+		return null;
+	}
+}